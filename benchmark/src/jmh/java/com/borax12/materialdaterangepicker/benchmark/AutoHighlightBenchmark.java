@@ -0,0 +1,98 @@
+package com.borax12.materialdaterangepicker.benchmark;
+
+import com.borax12.materialdaterangepicker.date.DayConstraints;
+import com.borax12.materialdaterangepicker.date.EpochDay;
+import com.borax12.materialdaterangepicker.date.EpochDaySet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Auto highlighting of the days between the start and end of a range. The picker checks the
+ * bounds of the range, whose cost doesn't depend on its length; the days are only materialized
+ * into a set or calendars when asked for, which grows with the range.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AutoHighlightBenchmark {
+
+    private static final int CELLS = 42;
+
+    /** The number of days in the range */
+    @Param({"31", "365", "3650"})
+    public int rangeDays;
+
+    private int mStart;
+    private int mEnd;
+    private EpochDaySet mRangeSet;
+
+    @Setup
+    public void setUp() {
+        mStart = EpochDay.of(2000, Calendar.JANUARY, 1);
+        mEnd = mStart + rangeDays - 1;
+        mRangeSet = materializeSet();
+    }
+
+    /**
+     * Classifies a month in the middle of the range against its bounds.
+     */
+    @Benchmark
+    public long classifyMonthByBounds() {
+        final int first = mStart + rangeDays / 2 - CELLS / 2;
+        long highlighted = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (DayConstraints.isHighlighted(first + cell, mStart, mEnd, null)) {
+                highlighted |= 1L << cell;
+            }
+        }
+        return highlighted;
+    }
+
+    /**
+     * Classifies the same month against the materialized days of the range.
+     */
+    @Benchmark
+    public long classifyMonthBySet() {
+        final int first = mStart + rangeDays / 2 - CELLS / 2;
+        long highlighted = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (DayConstraints.isHighlighted(first + cell, EpochDay.MAX, EpochDay.MIN,
+                    mRangeSet)) {
+                highlighted |= 1L << cell;
+            }
+        }
+        return highlighted;
+    }
+
+    @Benchmark
+    public EpochDaySet materializeSet() {
+        final EpochDaySet days = new EpochDaySet();
+        for (int day = mStart; day <= mEnd; day++) {
+            days.add(day);
+        }
+        return days;
+    }
+
+    /**
+     * What getHighlightedDays() of the dialog returns when auto highlighting is on.
+     */
+    @Benchmark
+    public Calendar[] materializeCalendars() {
+        final Calendar[] days = new Calendar[mEnd - mStart + 1];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = Calendar.getInstance();
+            EpochDay.toCalendar(mStart + i, days[i]);
+        }
+        return days;
+    }
+}
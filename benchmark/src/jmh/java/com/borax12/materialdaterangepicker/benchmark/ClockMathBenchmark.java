@@ -0,0 +1,65 @@
+package com.borax12.materialdaterangepicker.benchmark;
+
+import com.borax12.materialdaterangepicker.time.ClockMath;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The work done by the time picker for each touch event: turning the touched point into degrees
+ * and snapping them to a selectable value.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ClockMathBenchmark {
+
+    private static final int POINTS = 1024;
+    private static final float CENTER = 400;
+    private static final float RADIUS = 300;
+
+    private final float[] mX = new float[POINTS];
+    private final float[] mY = new float[POINTS];
+    private final int[] mDegrees = new int[POINTS];
+    private int mIndex;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        for (int i = 0; i < POINTS; i++) {
+            mX[i] = CENTER + (random.nextFloat() * 2 - 1) * RADIUS;
+            mY[i] = CENTER + (random.nextFloat() * 2 - 1) * RADIUS;
+            mDegrees[i] = random.nextInt(361);
+        }
+    }
+
+    private int next() {
+        mIndex = (mIndex + 1) & (POINTS - 1);
+        return mIndex;
+    }
+
+    @Benchmark
+    public int snapPrefer30s() {
+        return ClockMath.snapPrefer30s(mDegrees[next()]);
+    }
+
+    @Benchmark
+    public int snapOnly30s() {
+        return ClockMath.snapOnly30s(mDegrees[next()], 0);
+    }
+
+    @Benchmark
+    public int degreesFromCoords() {
+        final int i = next();
+        final double hypotenuse = ClockMath.distanceFromCenter(mX[i], mY[i], CENTER, CENTER);
+        return ClockMath.degreesFromCoords(mX[i], mY[i], CENTER, CENTER, hypotenuse);
+    }
+}
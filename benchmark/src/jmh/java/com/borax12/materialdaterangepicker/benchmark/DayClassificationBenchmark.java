@@ -0,0 +1,138 @@
+package com.borax12.materialdaterangepicker.benchmark;
+
+import com.borax12.materialdaterangepicker.date.DayConstraints;
+import com.borax12.materialdaterangepicker.date.EpochDay;
+import com.borax12.materialdaterangepicker.date.EpochDaySet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Calendar;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classifies the days of a month grid the way a month view does when it is bound: out of range,
+ * not selectable, highlighted and today. Each operation classifies the 42 cells of one month,
+ * cycling through months spread over the span of the sets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DayClassificationBenchmark {
+
+    private static final int CELLS = 42;
+    private static final int MONTHS = 64;
+
+    /** The number of selectable and of highlighted days */
+    @Param({"10", "1000", "100000"})
+    public int setSize;
+
+    private EpochDaySet mSelectableDays;
+    private EpochDaySet mHighlightedDays;
+    private int mMinDay;
+    private int mMaxDay;
+    private int mToday;
+    private final int[] mMonthStarts = new int[MONTHS];
+    private int mMonth;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        mMinDay = EpochDay.of(2000, Calendar.JANUARY, 1);
+        // Spread the days over twice their number, so about half the days of a month are in a set
+        final int span = Math.max(setSize * 2, CELLS);
+        mMaxDay = mMinDay + span - 1;
+        mToday = mMinDay + span / 2;
+        mSelectableDays = EpochDaySet.of(randomDays(random, setSize, mMinDay, span));
+        mHighlightedDays = EpochDaySet.of(randomDays(random, setSize, mMinDay, span));
+        for (int i = 0; i < MONTHS; i++) {
+            mMonthStarts[i] = mMinDay + random.nextInt(span - CELLS + 1);
+        }
+    }
+
+    private static int[] randomDays(Random random, int count, int first, int span) {
+        final int[] days = new int[count];
+        for (int i = 0; i < count; i++) {
+            days[i] = first + random.nextInt(span);
+        }
+        return days;
+    }
+
+    private int nextMonthStart() {
+        mMonth = (mMonth + 1) & (MONTHS - 1);
+        return mMonthStarts[mMonth];
+    }
+
+    @Benchmark
+    public long outOfRangeMinMax() {
+        final int start = nextMonthStart();
+        long disabled = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (DayConstraints.isOutOfRange(start + cell, mMinDay, mMaxDay, null)) {
+                disabled |= 1L << cell;
+            }
+        }
+        return disabled;
+    }
+
+    @Benchmark
+    public long outOfRangeSelectable() {
+        final int start = nextMonthStart();
+        long disabled = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (DayConstraints.isOutOfRange(start + cell, mMinDay, mMaxDay, mSelectableDays)) {
+                disabled |= 1L << cell;
+            }
+        }
+        return disabled;
+    }
+
+    @Benchmark
+    public long highlighted() {
+        final int start = nextMonthStart();
+        long highlighted = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (DayConstraints.isHighlighted(start + cell, EpochDay.MAX, EpochDay.MIN,
+                    mHighlightedDays)) {
+                highlighted |= 1L << cell;
+            }
+        }
+        return highlighted;
+    }
+
+    /**
+     * All four states at once, as compiled into the day masks of a month view.
+     */
+    @Benchmark
+    public void classifyMonth(Blackhole blackhole) {
+        final int start = nextMonthStart();
+        long disabled = 0;
+        long highlighted = 0;
+        long today = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            final int epochDay = start + cell;
+            final long bit = 1L << cell;
+            if (DayConstraints.isOutOfRange(epochDay, mMinDay, mMaxDay, mSelectableDays)) {
+                disabled |= bit;
+            }
+            if (DayConstraints.isHighlighted(epochDay, EpochDay.MAX, EpochDay.MIN,
+                    mHighlightedDays)) {
+                highlighted |= bit;
+            }
+            if (epochDay == mToday) {
+                today |= bit;
+            }
+        }
+        blackhole.consume(disabled);
+        blackhole.consume(highlighted);
+        blackhole.consume(today);
+    }
+}
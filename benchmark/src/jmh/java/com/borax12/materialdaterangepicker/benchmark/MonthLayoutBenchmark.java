@@ -0,0 +1,63 @@
+package com.borax12.materialdaterangepicker.benchmark;
+
+import com.borax12.materialdaterangepicker.date.EpochDay;
+import com.borax12.materialdaterangepicker.date.MonthLayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lays out months the way a month view does when it is bound, cycling through every month of the
+ * default year range, and converts between epoch days and dates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MonthLayoutBenchmark {
+
+    private static final int MONTHS =
+            (MonthLayout.DEFAULT_LAST_YEAR - MonthLayout.DEFAULT_FIRST_YEAR + 1) * 12;
+
+    private int mMonth;
+    private int mEpochDay;
+
+    private int nextMonth() {
+        mMonth = mMonth + 1 < MONTHS ? mMonth + 1 : 0;
+        return mMonth;
+    }
+
+    @Benchmark
+    public void layoutMonth(Blackhole blackhole) {
+        final int index = nextMonth();
+        final int year = MonthLayout.DEFAULT_FIRST_YEAR + index / 12;
+        final int month = index % 12;
+        blackhole.consume(MonthLayout.firstEpochDay(year, month));
+        blackhole.consume(MonthLayout.daysInMonth(year, month));
+        blackhole.consume(MonthLayout.dayOffset(year, month, Calendar.MONDAY));
+        blackhole.consume(MonthLayout.numRows(year, month, Calendar.MONDAY));
+    }
+
+    @Benchmark
+    public int epochDayOf() {
+        final int index = nextMonth();
+        return EpochDay.of(MonthLayout.DEFAULT_FIRST_YEAR + index / 12, index % 12, 15);
+    }
+
+    @Benchmark
+    public void epochDayToDate(Blackhole blackhole) {
+        // Steps through about 55 years of days
+        mEpochDay = (mEpochDay + 1) & 0x7fff;
+        blackhole.consume(EpochDay.year(mEpochDay));
+        blackhole.consume(EpochDay.month(mEpochDay));
+        blackhole.consume(EpochDay.day(mEpochDay));
+        blackhole.consume(EpochDay.dayOfWeek(mEpochDay));
+    }
+}
@@ -0,0 +1,90 @@
+package com.borax12.materialdaterangepicker.benchmark;
+
+import com.borax12.materialdaterangepicker.time.LegalTimesTree;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of times typed on a hardware keyboard: building the tree of legal key sequences,
+ * and checking typed sequences against it as the time picker does on every key.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TypedTimeBenchmark {
+
+    // KeyEvent.KEYCODE_A and KEYCODE_P, the AM and PM keys in English
+    private static final int KEYCODE_A = 29;
+    private static final int KEYCODE_P = 44;
+
+    private LegalTimesTree mTree12Hour;
+    private LegalTimesTree mTree24Hour;
+    private final List<List<Integer>> mSequences12Hour = new ArrayList<>();
+    private final List<List<Integer>> mSequences24Hour = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        mTree12Hour = LegalTimesTree.build(false, KEYCODE_A, KEYCODE_P);
+        mTree24Hour = LegalTimesTree.build(true, -1, -1);
+        // Legal and illegal sequences, typed one key at a time
+        addPrefixes(mSequences12Hour, digits("1259"), KEYCODE_P);
+        addPrefixes(mSequences12Hour, digits("945"), KEYCODE_A);
+        addPrefixes(mSequences12Hour, digits("1375"), KEYCODE_A);
+        addPrefixes(mSequences24Hour, digits("2359"));
+        addPrefixes(mSequences24Hour, digits("0805"));
+        addPrefixes(mSequences24Hour, digits("2460"));
+    }
+
+    private static Integer[] digits(String digits) {
+        final Integer[] keys = new Integer[digits.length()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = LegalTimesTree.KEYCODE_0 + digits.charAt(i) - '0';
+        }
+        return keys;
+    }
+
+    private static void addPrefixes(List<List<Integer>> sequences, Integer[] keys,
+            Integer... suffix) {
+        final List<Integer> sequence = new ArrayList<>(Arrays.asList(keys));
+        sequence.addAll(Arrays.asList(suffix));
+        for (int length = 1; length <= sequence.size(); length++) {
+            sequences.add(new ArrayList<>(sequence.subList(0, length)));
+        }
+    }
+
+    @Benchmark
+    public LegalTimesTree build12HourTree() {
+        return LegalTimesTree.build(false, KEYCODE_A, KEYCODE_P);
+    }
+
+    @Benchmark
+    public LegalTimesTree build24HourTree() {
+        return LegalTimesTree.build(true, -1, -1);
+    }
+
+    @Benchmark
+    public void validate12Hour(Blackhole blackhole) {
+        for (int i = 0; i < mSequences12Hour.size(); i++) {
+            blackhole.consume(mTree12Hour.isLegalSoFar(mSequences12Hour.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void validate24Hour(Blackhole blackhole) {
+        for (int i = 0; i < mSequences24Hour.size(); i++) {
+            blackhole.consume(mTree24Hour.isLegalSoFar(mSequences24Hour.get(i)));
+        }
+    }
+}
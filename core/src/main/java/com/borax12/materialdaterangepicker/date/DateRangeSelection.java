@@ -0,0 +1,88 @@
+package com.borax12.materialdaterangepicker.date;
+
+/**
+ * The start and end days of a picked range, see {@link EpochDay}.
+ *
+ * When the whole range is picked in a single calendar, each pick either starts a new range of a
+ * single day or, if it falls on or after the start of a range whose end is awaited, ends it.
+ */
+public final class DateRangeSelection {
+
+    private int mStart;
+    private int mEnd;
+    private boolean mSelectingEnd;
+
+    public DateRangeSelection(int start, int end) {
+        mStart = start;
+        mEnd = end;
+    }
+
+    public int getStart() {
+        return mStart;
+    }
+
+    public void setStart(int start) {
+        mStart = start;
+    }
+
+    public int getEnd() {
+        return mEnd;
+    }
+
+    public void setEnd(int end) {
+        mEnd = end;
+    }
+
+    /**
+     * @return true if the next pick in a single calendar ends the range
+     */
+    public boolean isSelectingEnd() {
+        return mSelectingEnd;
+    }
+
+    public void setSelectingEnd(boolean selectingEnd) {
+        mSelectingEnd = selectingEnd;
+    }
+
+    /**
+     * Starts a new range of the given day, whose end is picked next.
+     */
+    public void startRange(int epochDay) {
+        mStart = epochDay;
+        mEnd = epochDay;
+        mSelectingEnd = true;
+    }
+
+    /**
+     * Picks a day of a range picked in a single calendar.
+     */
+    public void pick(int epochDay) {
+        if (mSelectingEnd && epochDay >= mStart) {
+            mEnd = epochDay;
+            mSelectingEnd = false;
+        } else {
+            startRange(epochDay);
+        }
+    }
+
+    /**
+     * @return The end of a range picked in a single calendar that was picked last
+     */
+    public int getLastPicked() {
+        return mSelectingEnd ? mStart : mEnd;
+    }
+
+    /**
+     * @return The earlier of the start and end days
+     */
+    public int getFirstDay() {
+        return Math.min(mStart, mEnd);
+    }
+
+    /**
+     * @return The later of the start and end days
+     */
+    public int getLastDay() {
+        return Math.max(mStart, mEnd);
+    }
+}
@@ -0,0 +1,44 @@
+package com.borax12.materialdaterangepicker.date;
+
+/**
+ * The rules deciding which days can be picked and which are highlighted, see {@link EpochDay}.
+ * Shared by the views of the date picker and by any code validating the dates picked with it.
+ */
+public final class DayConstraints {
+
+    private DayConstraints() {
+    }
+
+    /**
+     * @param epochDay The day
+     * @param minEpochDay The first day that can be picked, or {@link EpochDay#MIN} if unset
+     * @param maxEpochDay The last day that can be picked, or {@link EpochDay#MAX} if unset
+     * @param selectableDays The only days that can be picked, or null if any day between the
+     *            minimum and maximum can be. Takes precedence over the minimum and maximum.
+     * @return true if the day can't be picked
+     */
+    public static boolean isOutOfRange(int epochDay, int minEpochDay, int maxEpochDay,
+            EpochDaySet selectableDays) {
+        if (selectableDays != null) {
+            return !selectableDays.contains(epochDay);
+        }
+        return epochDay < minEpochDay || epochDay > maxEpochDay;
+    }
+
+    /**
+     * @param epochDay The day
+     * @param rangeStart The first day of the highlighted range, or {@link EpochDay#MAX} if there
+     *            is none
+     * @param rangeEnd The last day of the highlighted range, or {@link EpochDay#MIN} if there
+     *            is none
+     * @param highlightedDays The days highlighted on top of the range, or null
+     * @return true if the day is highlighted
+     */
+    public static boolean isHighlighted(int epochDay, int rangeStart, int rangeEnd,
+            EpochDaySet highlightedDays) {
+        if (epochDay >= rangeStart && epochDay <= rangeEnd) {
+            return true;
+        }
+        return highlightedDays != null && highlightedDays.contains(epochDay);
+    }
+}
@@ -0,0 +1,173 @@
+package com.borax12.materialdaterangepicker.date;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Codecs for dates packed into a single int: the number of days since 1970-01-01.
+ *
+ * Months are numbered like {@link Calendar#MONTH} (0-11) and days of the week like
+ * {@link Calendar#DAY_OF_WEEK} (SUNDAY=1), so values can be exchanged with the rest of the
+ * picker without translation. All conversions are plain integer arithmetic on the proleptic
+ * Gregorian calendar; nothing is allocated and no time zone is involved.
+ */
+public final class EpochDay {
+
+    /**
+     * Lower bound used for an unset minimum date.
+     */
+    public static final int MIN = Integer.MIN_VALUE;
+    /**
+     * Upper bound used for an unset maximum date.
+     */
+    public static final int MAX = Integer.MAX_VALUE;
+
+    private static final long MILLIS_PER_DAY = 86400000L;
+    // Days from 0000-03-01 to 1970-01-01
+    private static final int DAYS_0000_TO_1970 = 719468;
+    private static final int DAYS_PER_ERA = 146097;
+
+    private EpochDay() {
+    }
+
+    /**
+     * @param year The year
+     * @param month The month (0-11)
+     * @param day The day of the month (1-31)
+     * @return The epoch day of the given date
+     */
+    public static int of(int year, int month, int day) {
+        int m = month + 1;
+        int y = m <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (m > 2 ? m - 3 : m + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * @return The epoch day of the year, month and day of month currently set on the calendar
+     */
+    public static int of(Calendar calendar) {
+        return of(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH),
+                calendar.get(Calendar.DAY_OF_MONTH));
+    }
+
+    /**
+     * @param localMillis Milliseconds since the epoch, already shifted into local time
+     * @return The epoch day containing the given instant
+     */
+    public static int ofLocalMillis(long localMillis) {
+        long days = localMillis / MILLIS_PER_DAY;
+        return (int) (localMillis % MILLIS_PER_DAY < 0 ? days - 1 : days);
+    }
+
+    /**
+     * @param millis Milliseconds since the epoch
+     * @param zone The time zone in which to find the day
+     * @return The epoch day containing the given instant in the given time zone
+     */
+    public static int of(long millis, TimeZone zone) {
+        return ofLocalMillis(millis + zone.getOffset(millis));
+    }
+
+    /**
+     * @return The epoch day of today in the default time zone
+     */
+    public static int today() {
+        return of(System.currentTimeMillis(), TimeZone.getDefault());
+    }
+
+    /**
+     * @return The year of the given epoch day
+     */
+    public static int year(int epochDay) {
+        int dayOfEra = dayOfEra(epochDay);
+        int yearOfEra = yearOfEra(dayOfEra);
+        int year = yearOfEra + era(epochDay) * 400;
+        return monthIndex(dayOfEra, yearOfEra) >= 10 ? year + 1 : year;
+    }
+
+    /**
+     * @return The month (0-11) of the given epoch day
+     */
+    public static int month(int epochDay) {
+        int dayOfEra = dayOfEra(epochDay);
+        int monthIndex = monthIndex(dayOfEra, yearOfEra(dayOfEra));
+        return monthIndex < 10 ? monthIndex + 2 : monthIndex - 10;
+    }
+
+    /**
+     * @return The day of the month (1-31) of the given epoch day
+     */
+    public static int day(int epochDay) {
+        int dayOfEra = dayOfEra(epochDay);
+        int dayOfYear = dayOfYear(dayOfEra, yearOfEra(dayOfEra));
+        int monthIndex = (5 * dayOfYear + 2) / 153;
+        return dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+    }
+
+    /**
+     * @return The day of the week of the given epoch day, {@link Calendar#SUNDAY} through
+     * {@link Calendar#SATURDAY}
+     */
+    public static int dayOfWeek(int epochDay) {
+        // 1970-01-01 was a Thursday
+        int index = (epochDay + Calendar.THURSDAY - 1) % 7;
+        return (index < 0 ? index + 7 : index) + 1;
+    }
+
+    public static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * @param year The year
+     * @param month The month (0-11)
+     * @return The number of days in the given month
+     */
+    public static int daysInMonth(int year, int month) {
+        switch (month) {
+            case Calendar.FEBRUARY:
+                return isLeapYear(year) ? 29 : 28;
+            case Calendar.APRIL:
+            case Calendar.JUNE:
+            case Calendar.SEPTEMBER:
+            case Calendar.NOVEMBER:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Sets the year, month and day of month of the calendar to the given epoch day, leaving the
+     * time of day untouched.
+     */
+    public static void toCalendar(int epochDay, Calendar calendar) {
+        calendar.set(year(epochDay), month(epochDay), day(epochDay));
+    }
+
+    private static int era(int epochDay) {
+        int z = epochDay + DAYS_0000_TO_1970;
+        return (z >= 0 ? z : z - DAYS_PER_ERA + 1) / DAYS_PER_ERA;
+    }
+
+    private static int dayOfEra(int epochDay) {
+        return epochDay + DAYS_0000_TO_1970 - era(epochDay) * DAYS_PER_ERA;
+    }
+
+    private static int yearOfEra(int dayOfEra) {
+        return (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    }
+
+    private static int dayOfYear(int dayOfEra, int yearOfEra) {
+        return dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    }
+
+    // Months counted from March (0) to February (11)
+    private static int monthIndex(int dayOfEra, int yearOfEra) {
+        return (5 * dayOfYear(dayOfEra, yearOfEra) + 2) / 153;
+    }
+}
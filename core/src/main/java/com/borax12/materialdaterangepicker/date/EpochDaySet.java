@@ -0,0 +1,335 @@
+package com.borax12.materialdaterangepicker.date;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * A set of {@link EpochDay}s backed by a bitmap.
+ *
+ * Bit {@code i} of word {@code w} stands for the day {@code base + 64 * w + i}, where the base is
+ * the first day of the lowest word in use. The bitmap grows in either direction as days are added,
+ * so membership is a single array read no matter how many days the set holds, and a set spanning
+ * a whole year costs 48 bytes.
+ */
+public final class EpochDaySet {
+
+    private static final long[] EMPTY = new long[0];
+
+    // First byte of the arrays written by toByteArray()
+    private static final byte FORMAT_BITMAP = 0;
+    private static final byte FORMAT_GAPS = 1;
+
+    private long[] mWords = EMPTY;
+    private int mBase;
+    private int mSize;
+    private int mFirst = EpochDay.MAX;
+    private int mLast = EpochDay.MIN;
+
+    public EpochDaySet() {
+    }
+
+    /**
+     * @param epochDays The days to add, in any order and possibly with duplicates
+     * @return A new set holding the given days
+     */
+    public static EpochDaySet of(int[] epochDays) {
+        EpochDaySet set = new EpochDaySet();
+        set.addAll(epochDays);
+        return set;
+    }
+
+    /**
+     * @param calendars The days to add, in any order and possibly with duplicates
+     * @return A new set holding the year, month and day of month of the given calendars
+     */
+    public static EpochDaySet of(Calendar[] calendars) {
+        EpochDaySet set = new EpochDaySet();
+        for (Calendar calendar : calendars) {
+            set.add(EpochDay.of(calendar));
+        }
+        return set;
+    }
+
+    /**
+     * @param timesInMillis Instants in milliseconds since the epoch
+     * @param zone The time zone used to find the day of each instant
+     * @return A new set holding the days of the given instants
+     */
+    public static EpochDaySet of(long[] timesInMillis, TimeZone zone) {
+        EpochDaySet set = new EpochDaySet();
+        for (long millis : timesInMillis) {
+            set.add(EpochDay.of(millis, zone));
+        }
+        return set;
+    }
+
+    public void add(int epochDay) {
+        ensureCapacity(epochDay, epochDay);
+        final int index = epochDay - mBase;
+        final long bit = 1L << index;
+        if ((mWords[index >>> 6] & bit) == 0) {
+            mWords[index >>> 6] |= bit;
+            mSize++;
+            if (epochDay < mFirst) mFirst = epochDay;
+            if (epochDay > mLast) mLast = epochDay;
+        }
+    }
+
+    public void addAll(int[] epochDays) {
+        if (epochDays.length == 0) {
+            return;
+        }
+        int min = epochDays[0];
+        int max = epochDays[0];
+        for (int epochDay : epochDays) {
+            if (epochDay < min) min = epochDay;
+            if (epochDay > max) max = epochDay;
+        }
+        // Size the bitmap once up front instead of growing it while adding
+        ensureCapacity(min, max);
+        for (int epochDay : epochDays) {
+            add(epochDay);
+        }
+    }
+
+    public boolean contains(int epochDay) {
+        if (epochDay < mFirst || epochDay > mLast) {
+            return false;
+        }
+        final int index = epochDay - mBase;
+        return (mWords[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    public boolean isEmpty() {
+        return mSize == 0;
+    }
+
+    /**
+     * @return The lowest day in the set, or {@link EpochDay#MAX} if the set is empty
+     */
+    public int first() {
+        return mFirst;
+    }
+
+    /**
+     * @return The highest day in the set, or {@link EpochDay#MIN} if the set is empty
+     */
+    public int last() {
+        return mLast;
+    }
+
+    public void clear() {
+        Arrays.fill(mWords, 0);
+        mSize = 0;
+        mFirst = EpochDay.MAX;
+        mLast = EpochDay.MIN;
+    }
+
+    /**
+     * @return The days in the set in ascending order
+     */
+    public int[] toArray() {
+        int[] days = new int[mSize];
+        int n = 0;
+        for (int w = 0; w < mWords.length; w++) {
+            long word = mWords[w];
+            while (word != 0) {
+                days[n++] = mBase + (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return days;
+    }
+
+    /**
+     * @return New calendars set to the days in the set, in ascending order
+     */
+    public Calendar[] toCalendars() {
+        int[] days = toArray();
+        Calendar[] calendars = new Calendar[days.length];
+        for (int i = 0; i < days.length; i++) {
+            calendars[i] = Calendar.getInstance();
+            EpochDay.toCalendar(days[i], calendars[i]);
+        }
+        return calendars;
+    }
+
+    /**
+     * Packs the set into a few bytes, e.g. to save it in a Bundle. Dense sets are written as the
+     * words of the bitmap that hold days, sparse ones as the varint encoded gaps between
+     * consecutive days, whichever is shorter: a whole year of days fits in about 60 bytes, and a
+     * dozen days spread over it in about 15.
+     *
+     * @return The bytes to pass to {@link #fromByteArray(byte[])}
+     */
+    public byte[] toByteArray() {
+        if (mSize == 0) {
+            return new byte[] {FORMAT_GAPS, 0};
+        }
+        final int firstWord = (mFirst - mBase) >>> 6;
+        final int wordCount = ((mLast - mBase) >>> 6) - firstWord + 1;
+        final int wordsBase = zigZag(mBase + (firstWord << 6));
+        final int bitmapLength = 1 + varIntLength(wordsBase) + varIntLength(wordCount)
+                + wordCount * 8;
+
+        final int[] days = toArray();
+        int gapsLength = 1 + varIntLength(mSize) + varIntLength(zigZag(mFirst));
+        for (int i = 1; i < days.length && gapsLength < bitmapLength; i++) {
+            gapsLength += varIntLength(days[i] - days[i - 1] - 1);
+        }
+
+        if (bitmapLength <= gapsLength) {
+            byte[] bytes = new byte[bitmapLength];
+            bytes[0] = FORMAT_BITMAP;
+            int pos = putVarInt(bytes, 1, wordsBase);
+            pos = putVarInt(bytes, pos, wordCount);
+            for (int w = firstWord; w < firstWord + wordCount; w++) {
+                final long word = mWords[w];
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    bytes[pos++] = (byte) (word >>> shift);
+                }
+            }
+            return bytes;
+        }
+        byte[] bytes = new byte[gapsLength];
+        bytes[0] = FORMAT_GAPS;
+        int pos = putVarInt(bytes, 1, mSize);
+        pos = putVarInt(bytes, pos, zigZag(mFirst));
+        for (int i = 1; i < days.length; i++) {
+            pos = putVarInt(bytes, pos, days[i] - days[i - 1] - 1);
+        }
+        return bytes;
+    }
+
+    /**
+     * @param bytes An array written by {@link #toByteArray()}
+     * @return A new set holding the days the array was written from
+     * @throws IllegalArgumentException If the array wasn't written by {@link #toByteArray()}
+     */
+    public static EpochDaySet fromByteArray(byte[] bytes) {
+        if (bytes.length == 0) {
+            throw new IllegalArgumentException("Empty day set encoding");
+        }
+        final Reader reader = new Reader(bytes);
+        final byte format = bytes[0];
+        EpochDaySet set = new EpochDaySet();
+        if (format == FORMAT_BITMAP) {
+            final int base = unZigZag(reader.readVarInt());
+            final long[] words = new long[reader.readVarInt()];
+            int size = 0;
+            for (int w = 0; w < words.length; w++) {
+                words[w] = reader.readLong();
+                size += Long.bitCount(words[w]);
+            }
+            if (size == 0) {
+                return set;
+            }
+            set.mWords = words;
+            set.mBase = base;
+            set.mSize = size;
+            set.mFirst = base + Long.numberOfTrailingZeros(words[0]);
+            set.mLast = base + (words.length << 6) - 1
+                    - Long.numberOfLeadingZeros(words[words.length - 1]);
+        } else if (format == FORMAT_GAPS) {
+            final int[] days = new int[reader.readVarInt()];
+            if (days.length == 0) {
+                return set;
+            }
+            days[0] = unZigZag(reader.readVarInt());
+            for (int i = 1; i < days.length; i++) {
+                days[i] = days[i - 1] + reader.readVarInt() + 1;
+            }
+            set.addAll(days);
+        } else {
+            throw new IllegalArgumentException("Unknown day set encoding " + format);
+        }
+        return set;
+    }
+
+    private void ensureCapacity(int from, int to) {
+        if (mWords.length == 0) {
+            mBase = from & ~63;
+            mWords = new long[((to - mBase) >>> 6) + 1];
+            return;
+        }
+        final int end = mBase + (mWords.length << 6);
+        if (from >= mBase && to < end) {
+            return;
+        }
+        // Grow by at least half the current span so that adding days one by one stays linear
+        final int headroom = (end - mBase) >>> 1 & ~63;
+        final int base = from < mBase ? Math.min(from & ~63, mBase - headroom) : mBase;
+        final int newEnd = to >= end ? Math.max((to & ~63) + 64, end + headroom) : end;
+        long[] words = new long[(newEnd - base) >>> 6];
+        System.arraycopy(mWords, 0, words, (mBase - base) >>> 6, mWords.length);
+        mWords = words;
+        mBase = base;
+    }
+
+    // Maps small negative days to small positive numbers so they stay short as varints
+    private static int zigZag(int n) {
+        return (n << 1) ^ (n >> 31);
+    }
+
+    private static int unZigZag(int n) {
+        return (n >>> 1) ^ -(n & 1);
+    }
+
+    private static int varIntLength(int n) {
+        int length = 1;
+        while ((n & ~0x7f) != 0) {
+            n >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Writes the number seven bits at a time, lowest first, with the top bit of each byte set
+     * while more follow.
+     *
+     * @return The position just after the written bytes
+     */
+    private static int putVarInt(byte[] bytes, int pos, int n) {
+        while ((n & ~0x7f) != 0) {
+            bytes[pos++] = (byte) ((n & 0x7f) | 0x80);
+            n >>>= 7;
+        }
+        bytes[pos++] = (byte) n;
+        return pos;
+    }
+
+    private static final class Reader {
+        private final byte[] mBytes;
+        // Skips the format byte
+        private int mPos = 1;
+
+        Reader(byte[] bytes) {
+            mBytes = bytes;
+        }
+
+        int readVarInt() {
+            int n = 0;
+            for (int shift = 0; ; shift += 7) {
+                final byte b = mBytes[mPos++];
+                n |= (b & 0x7f) << shift;
+                if (b >= 0) {
+                    return n;
+                }
+            }
+        }
+
+        long readLong() {
+            long n = 0;
+            for (int i = 0; i < 8; i++) {
+                n = (n << 8) | (mBytes[mPos++] & 0xff);
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,517 @@
+package com.borax12.materialdaterangepicker.date;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Calendar;
+
+/**
+ * Reads the days covered by the events of an iCalendar (.ics) file straight into an
+ * {@link EpochDaySet}, e.g. public holidays or blackout dates.
+ *
+ * The file is streamed a line at a time and each event is reduced to a few ints while it is read,
+ * so files with tens of thousands of events are read without building anything per event. Only
+ * what decides the days of a VEVENT is read:
+ * <ul>
+ * <li>DTSTART, and DTEND or a DURATION in days or weeks. Dates are taken as written, without
+ * converting times between time zones.</li>
+ * <li>RRULE with a FREQ of DAILY, WEEKLY, MONTHLY or YEARLY, and INTERVAL, COUNT, UNTIL, WKST,
+ * BYMONTH, BYMONTHDAY and, for weekly rules, BYDAY. Events with any other rule only get their
+ * first occurrence.</li>
+ * <li>EXDATE.</li>
+ * </ul>
+ * Components nested in an event, such as VALARM, are skipped.
+ * Recurrences are expanded up to the last day given to the reader, so that rules without an end
+ * stop there.
+ */
+public final class IcsDayReader {
+
+    private static final int NONE = EpochDay.MIN;
+
+    private static final int FREQ_NONE = 0;
+    private static final int FREQ_DAILY = 1;
+    private static final int FREQ_WEEKLY = 2;
+    private static final int FREQ_MONTHLY = 3;
+    private static final int FREQ_YEARLY = 4;
+
+    private static final int ALL_MONTHS = (1 << 12) - 1;
+
+    // Two letter days of RFC 5545, indexed by Calendar.SUNDAY - 1 through Calendar.SATURDAY - 1
+    private static final String[] WEEKDAYS = {"SU", "MO", "TU", "WE", "TH", "FR", "SA"};
+
+    private final int mFirstEpochDay;
+    private final int mLastEpochDay;
+
+    // The event being read, reset by BEGIN:VEVENT
+    private boolean mInEvent;
+    // The depth of the components nested in the event, e.g. a VALARM
+    private int mNestedDepth;
+    private int mStart;
+    // Exclusive, NONE if the event has no DTEND
+    private int mEnd;
+    private int mDurationDays;
+    private int mFreq;
+    private boolean mUnsupportedRule;
+    private int mInterval;
+    private int mCount;
+    private int mUntil;
+    private int mWeekStart;
+    // Bit (Calendar.DAY_OF_WEEK - 1) for each BYDAY day
+    private int mByDay;
+    // Bit (Calendar.MONTH) for each BYMONTH month
+    private int mByMonth;
+    // Bit (day - 1) for each positive BYMONTHDAY day, bit (31 - day) for each negative one
+    private long mByMonthDay;
+    private int[] mExDates = new int[8];
+    private int mExDateCount;
+
+    private final StringBuilder mFolded = new StringBuilder();
+
+    /**
+     * @param firstEpochDay The first day to add to the set, see {@link EpochDay}
+     * @param lastEpochDay The last day to add to the set, which also ends recurrences. Must be
+     *            an actual day rather than {@link EpochDay#MAX}.
+     */
+    public IcsDayReader(int firstEpochDay, int lastEpochDay) {
+        mFirstEpochDay = firstEpochDay;
+        mLastEpochDay = lastEpochDay;
+    }
+
+    /**
+     * Adds the days covered by the events of the file to the set. Events that can't be read,
+     * e.g. without a DTSTART, are skipped.
+     *
+     * @param in The content of the file, read to the end but not closed
+     * @param days The set to add the days to
+     * @return The number of events read
+     * @throws IOException If the content can't be read
+     */
+    public int read(Reader in, EpochDaySet days) throws IOException {
+        final BufferedReader reader = in instanceof BufferedReader
+                ? (BufferedReader) in : new BufferedReader(in);
+        mInEvent = false;
+        int eventCount = 0;
+        String line = reader.readLine();
+        while (line != null) {
+            // Lines starting with a space or a tab continue the previous one
+            String next = reader.readLine();
+            if (isContinuation(next)) {
+                mFolded.setLength(0);
+                mFolded.append(line);
+                do {
+                    mFolded.append(next, 1, next.length());
+                    next = reader.readLine();
+                } while (isContinuation(next));
+                line = mFolded.toString();
+            }
+            if (readLine(line, days)) {
+                eventCount++;
+            }
+            line = next;
+        }
+        return eventCount;
+    }
+
+    private static boolean isContinuation(String line) {
+        return line != null && !line.isEmpty() && (line.charAt(0) == ' ' || line.charAt(0) == '\t');
+    }
+
+    /**
+     * @return true if the line ended an event
+     */
+    private boolean readLine(String line, EpochDaySet days) {
+        if (line.equalsIgnoreCase("BEGIN:VEVENT")) {
+            startEvent();
+            return false;
+        }
+        if (!mInEvent) {
+            return false;
+        }
+        if (line.equalsIgnoreCase("END:VEVENT")) {
+            mInEvent = false;
+            if (mStart != NONE) {
+                addEvent(days);
+            }
+            return true;
+        }
+        if (line.regionMatches(true, 0, "BEGIN:", 0, 6)) {
+            mNestedDepth++;
+            return false;
+        }
+        if (mNestedDepth > 0) {
+            if (line.regionMatches(true, 0, "END:", 0, 4)) {
+                mNestedDepth--;
+            }
+            return false;
+        }
+
+        final int valueStart = findValue(line);
+        if (valueStart < 0) {
+            return false;
+        }
+        if (isProperty(line, "DTSTART")) {
+            mStart = parseDate(line, valueStart);
+        } else if (isProperty(line, "DTEND")) {
+            final int end = parseDate(line, valueStart);
+            // An end time past midnight covers its day too
+            mEnd = end != NONE && hasTimeAfterMidnight(line, valueStart) ? end + 1 : end;
+        } else if (isProperty(line, "DURATION")) {
+            mDurationDays = parseDurationDays(line, valueStart);
+        } else if (isProperty(line, "RRULE")) {
+            readRule(line, valueStart);
+        } else if (isProperty(line, "EXDATE")) {
+            for (int i = valueStart; i > 0; i = line.indexOf(',', i) + 1) {
+                addExDate(parseDate(line, i));
+            }
+        }
+        return false;
+    }
+
+    private void startEvent() {
+        mInEvent = true;
+        mNestedDepth = 0;
+        mStart = NONE;
+        mEnd = NONE;
+        mDurationDays = 0;
+        mFreq = FREQ_NONE;
+        mUnsupportedRule = false;
+        mInterval = 1;
+        mCount = 0;
+        mUntil = EpochDay.MAX;
+        mWeekStart = Calendar.MONDAY;
+        mByDay = 0;
+        mByMonth = 0;
+        mByMonthDay = 0;
+        mExDateCount = 0;
+    }
+
+    private void readRule(String line, int valueStart) {
+        int partStart = valueStart;
+        while (partStart < line.length()) {
+            int partEnd = line.indexOf(';', partStart);
+            if (partEnd < 0) {
+                partEnd = line.length();
+            }
+            final int equals = line.indexOf('=', partStart);
+            if (equals < 0 || equals > partEnd) {
+                mUnsupportedRule = true;
+            } else if (line.regionMatches(true, partStart, "FREQ=", 0, 5)) {
+                mFreq = parseFreq(line.substring(equals + 1, partEnd));
+            } else if (line.regionMatches(true, partStart, "INTERVAL=", 0, 9)) {
+                mInterval = Math.max(parseInt(line, equals + 1, partEnd), 1);
+            } else if (line.regionMatches(true, partStart, "COUNT=", 0, 6)) {
+                mCount = Math.max(parseInt(line, equals + 1, partEnd), 0);
+            } else if (line.regionMatches(true, partStart, "UNTIL=", 0, 6)) {
+                final int until = parseDate(line, equals + 1);
+                mUntil = until != NONE ? until : EpochDay.MAX;
+            } else if (line.regionMatches(true, partStart, "WKST=", 0, 5)) {
+                final int weekStart = parseWeekday(line, equals + 1);
+                if (weekStart > 0) mWeekStart = weekStart;
+            } else if (line.regionMatches(true, partStart, "BYDAY=", 0, 6)) {
+                for (int i = equals + 1; i < partEnd; i += 3) {
+                    final int dayOfWeek = parseWeekday(line, i);
+                    if (dayOfWeek > 0) {
+                        mByDay |= 1 << (dayOfWeek - 1);
+                    } else {
+                        // e.g. 1MO or -1FR
+                        mUnsupportedRule = true;
+                        break;
+                    }
+                }
+            } else if (line.regionMatches(true, partStart, "BYMONTH=", 0, 8)) {
+                for (int i = equals + 1; i < partEnd; ) {
+                    final int end = listItemEnd(line, i, partEnd);
+                    final int month = parseInt(line, i, end);
+                    if (month < 1 || month > 12) {
+                        mUnsupportedRule = true;
+                        break;
+                    }
+                    mByMonth |= 1 << (month - 1);
+                    i = end + 1;
+                }
+            } else if (line.regionMatches(true, partStart, "BYMONTHDAY=", 0, 11)) {
+                for (int i = equals + 1; i < partEnd; ) {
+                    final int end = listItemEnd(line, i, partEnd);
+                    final boolean negative = line.charAt(i) == '-';
+                    final int sign = negative || line.charAt(i) == '+' ? 1 : 0;
+                    final int day = parseInt(line, i + sign, end);
+                    if (day < 1 || day > 31) {
+                        mUnsupportedRule = true;
+                        break;
+                    }
+                    mByMonthDay |= 1L << (negative ? 31 + day : day - 1);
+                    i = end + 1;
+                }
+            } else {
+                mUnsupportedRule = true;
+            }
+            partStart = partEnd + 1;
+        }
+        // Weekly rules can't have a BYMONTHDAY
+        if (mByDay != 0 && mFreq != FREQ_WEEKLY || mByMonthDay != 0 && mFreq == FREQ_WEEKLY) {
+            mUnsupportedRule = true;
+        }
+    }
+
+    private void addEvent(EpochDaySet days) {
+        int duration = 1;
+        if (mEnd != NONE) {
+            duration = Math.max(mEnd - mStart, 1);
+        } else if (mDurationDays > 0) {
+            duration = mDurationDays;
+        }
+        if (mFreq == FREQ_NONE || mUnsupportedRule) {
+            addOccurrence(days, mStart, duration);
+            return;
+        }
+
+        final int last = Math.min(mUntil, mLastEpochDay);
+        final int count = mCount > 0 ? mCount : Integer.MAX_VALUE;
+        int n = 0;
+        switch (mFreq) {
+            case FREQ_DAILY: {
+                int day = mStart;
+                if (mCount == 0 && day < mFirstEpochDay - duration) {
+                    // Skip the occurrences ending before the first day in one go
+                    final int skipped = (mFirstEpochDay - duration - day) / mInterval;
+                    day += skipped * mInterval;
+                }
+                for (; day <= last && n < count; day += mInterval) {
+                    if (isRuleDay(day)) {
+                        addOccurrence(days, day, duration);
+                        n++;
+                    }
+                }
+                break;
+            }
+            case FREQ_WEEKLY: {
+                final int byDay = mByDay != 0 ? mByDay : 1 << (EpochDay.dayOfWeek(mStart) - 1);
+                // The first day of the week of the start, as set by WKST
+                int weekStart = mStart - (EpochDay.dayOfWeek(mStart) - mWeekStart + 7) % 7;
+                for (; weekStart <= last && n < count; weekStart += 7 * mInterval) {
+                    for (int i = 0; i < 7 && n < count; i++) {
+                        final int day = weekStart + i;
+                        if (day > last) {
+                            break;
+                        }
+                        if (day >= mStart && (byDay & 1 << (EpochDay.dayOfWeek(day) - 1)) != 0
+                                && isRuleDay(day)) {
+                            addOccurrence(days, day, duration);
+                            n++;
+                        }
+                    }
+                }
+                break;
+            }
+            case FREQ_MONTHLY:
+            case FREQ_YEARLY: {
+                final int startDayOfMonth = EpochDay.day(mStart);
+                final int startMonth = EpochDay.year(mStart) * 12 + EpochDay.month(mStart);
+                final int lastMonth = EpochDay.year(last) * 12 + EpochDay.month(last);
+                // Yearly rules without a BYMONTH repeat in the month of the start, or in every
+                // month if they have a BYMONTHDAY
+                int byMonth = mByMonth;
+                if (byMonth == 0) {
+                    byMonth = mFreq == FREQ_YEARLY && mByMonthDay == 0
+                            ? 1 << EpochDay.month(mStart) : ALL_MONTHS;
+                }
+                for (int month = startMonth; month <= lastMonth && n < count; month++) {
+                    final int period = mFreq == FREQ_MONTHLY
+                            ? month - startMonth : month / 12 - startMonth / 12;
+                    if (period % mInterval != 0 || (byMonth & 1 << month % 12) == 0) {
+                        continue;
+                    }
+                    final int year = month / 12;
+                    final int daysInMonth = EpochDay.daysInMonth(year, month % 12);
+                    final int firstDay = EpochDay.of(year, month % 12, 1);
+                    // Without a BYMONTHDAY, months without the day of the start, e.g. the 31st
+                    // or February 29th, are skipped
+                    final int from = mByMonthDay != 0 ? 1 : startDayOfMonth;
+                    final int to = mByMonthDay != 0 ? daysInMonth : Math.min(startDayOfMonth,
+                            daysInMonth);
+                    for (int dayOfMonth = from; dayOfMonth <= to && n < count; dayOfMonth++) {
+                        final int day = firstDay + dayOfMonth - 1;
+                        if (day >= mStart && day <= last
+                                && isRuleDayOfMonth(dayOfMonth, daysInMonth)) {
+                            addOccurrence(days, day, duration);
+                            n++;
+                        }
+                    }
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return true if the day is in the BYMONTH months and BYMONTHDAY days of the rule, if any
+     */
+    private boolean isRuleDay(int day) {
+        if (mByMonth != 0 && (mByMonth & 1 << EpochDay.month(day)) == 0) {
+            return false;
+        }
+        if (mByMonthDay == 0) {
+            return true;
+        }
+        final int daysInMonth = EpochDay.daysInMonth(EpochDay.year(day), EpochDay.month(day));
+        return isRuleDayOfMonth(EpochDay.day(day), daysInMonth);
+    }
+
+    private boolean isRuleDayOfMonth(int dayOfMonth, int daysInMonth) {
+        if (mByMonthDay == 0) {
+            return true;
+        }
+        // The last day of the month is -1
+        final long bits = 1L << (dayOfMonth - 1) | 1L << (32 + daysInMonth - dayOfMonth);
+        return (mByMonthDay & bits) != 0;
+    }
+
+    private void addOccurrence(EpochDaySet days, int start, int duration) {
+        for (int i = 0; i < mExDateCount; i++) {
+            if (mExDates[i] == start) {
+                return;
+            }
+        }
+        final int first = Math.max(start, mFirstEpochDay);
+        final int last = Math.min(start + duration - 1, mLastEpochDay);
+        for (int day = first; day <= last; day++) {
+            days.add(day);
+        }
+    }
+
+    private void addExDate(int day) {
+        if (day == NONE) {
+            return;
+        }
+        if (mExDateCount == mExDates.length) {
+            final int[] exDates = new int[mExDateCount * 2];
+            System.arraycopy(mExDates, 0, exDates, 0, mExDateCount);
+            mExDates = exDates;
+        }
+        mExDates[mExDateCount++] = day;
+    }
+
+    /**
+     * @return The index of the comma ending the item of a list starting at the given index, or
+     * the end of the list
+     */
+    private static int listItemEnd(String line, int start, int end) {
+        final int comma = line.indexOf(',', start);
+        return comma < 0 || comma > end ? end : comma;
+    }
+
+    private static boolean isProperty(String line, String name) {
+        final int length = name.length();
+        if (!line.regionMatches(true, 0, name, 0, length) || line.length() == length) {
+            return false;
+        }
+        final char next = line.charAt(length);
+        return next == ':' || next == ';';
+    }
+
+    /**
+     * @return The index of the value after the name and parameters, or -1 if there is none
+     */
+    private static int findValue(String line) {
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ':' && !quoted) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The epoch day of a date written as YYYYMMDD at the given index, or {@link #NONE}
+     */
+    private static int parseDate(String line, int start) {
+        if (start + 8 > line.length()) {
+            return NONE;
+        }
+        final int year = parseInt(line, start, start + 4);
+        final int month = parseInt(line, start + 4, start + 6);
+        final int day = parseInt(line, start + 6, start + 8);
+        if (year < 0 || month < 1 || month > 12 || day < 1
+                || day > EpochDay.daysInMonth(year, month - 1)) {
+            return NONE;
+        }
+        return EpochDay.of(year, month - 1, day);
+    }
+
+    /**
+     * @return true if the date at the given index is followed by a time other than 000000
+     */
+    private static boolean hasTimeAfterMidnight(String line, int start) {
+        final int time = start + 9;
+        if (start + 8 >= line.length() || line.charAt(start + 8) != 'T'
+                || time + 6 > line.length()) {
+            return false;
+        }
+        return parseInt(line, time, time + 6) > 0;
+    }
+
+    /**
+     * @return The whole days of a duration such as P2D or P1W, 0 if it has none
+     */
+    private static int parseDurationDays(String line, int start) {
+        int value = 0;
+        for (int i = start; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + c - '0';
+            } else if (c == 'W') {
+                return value * 7;
+            } else if (c == 'D') {
+                return value;
+            } else if (c == 'T') {
+                break;
+            } else {
+                value = 0;
+            }
+        }
+        return 0;
+    }
+
+    private static int parseFreq(String freq) {
+        if (freq.equalsIgnoreCase("DAILY")) return FREQ_DAILY;
+        if (freq.equalsIgnoreCase("WEEKLY")) return FREQ_WEEKLY;
+        if (freq.equalsIgnoreCase("MONTHLY")) return FREQ_MONTHLY;
+        if (freq.equalsIgnoreCase("YEARLY")) return FREQ_YEARLY;
+        return FREQ_NONE;
+    }
+
+    /**
+     * @return The {@link Calendar#DAY_OF_WEEK} of a two letter day at the given index, or 0
+     */
+    private static int parseWeekday(String line, int start) {
+        for (int i = 0; i < WEEKDAYS.length; i++) {
+            if (line.regionMatches(true, start, WEEKDAYS[i], 0, 2)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return The non negative number written between the indexes, or -1 if it isn't one or is
+     * too long to fit an int
+     */
+    private static int parseInt(String line, int start, int end) {
+        if (start >= end || end > line.length() || end - start > 9) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            final char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + c - '0';
+        }
+        return value;
+    }
+}
@@ -0,0 +1,125 @@
+package com.borax12.materialdaterangepicker.date;
+
+/**
+ * Process-wide table describing how each month is laid out in the month grid.
+ *
+ * The table holds the {@link EpochDay} of the first of every month, which is all that is needed
+ * to find the length of a month, the weekday it starts on and the number of week rows it covers
+ * for a given week start. It covers the default year range of the picker up front and is
+ * rebuilt to a wider range the first time a month outside of it is asked for. Once built a
+ * table is never modified, so lookups need no locking and can be shared by every picker in the
+ * process.
+ */
+public final class MonthLayout {
+
+    public static final int DEFAULT_FIRST_YEAR = 1900;
+    public static final int DEFAULT_LAST_YEAR = 2100;
+
+    private static final int MONTHS_IN_YEAR = 12;
+    private static final int DAYS_IN_WEEK = 7;
+
+    private static volatile Table sTable = new Table(DEFAULT_FIRST_YEAR, DEFAULT_LAST_YEAR);
+
+    private MonthLayout() {
+    }
+
+    /**
+     * @param year The year
+     * @param month The month (0-11)
+     * @return The epoch day of the first day of the given month
+     */
+    public static int firstEpochDay(int year, int month) {
+        final Table table = table(year);
+        return table.mFirstDays[table.index(year, month)];
+    }
+
+    /**
+     * @return The number of days in the given month
+     */
+    public static int daysInMonth(int year, int month) {
+        final Table table = table(year);
+        final int index = table.index(year, month);
+        return table.mFirstDays[index + 1] - table.mFirstDays[index];
+    }
+
+    /**
+     * @return The day of the week the given month starts on, {@link java.util.Calendar#SUNDAY}
+     * through {@link java.util.Calendar#SATURDAY}
+     */
+    public static int firstDayOfWeek(int year, int month) {
+        return EpochDay.dayOfWeek(firstEpochDay(year, month));
+    }
+
+    /**
+     * @param weekStart The first day of the week, {@link java.util.Calendar#SUNDAY} through
+     *            {@link java.util.Calendar#SATURDAY}
+     * @return The number of empty cells before the first day of the given month
+     */
+    public static int dayOffset(int year, int month, int weekStart) {
+        final int offset = firstDayOfWeek(year, month) - weekStart;
+        return offset < 0 ? offset + DAYS_IN_WEEK : offset;
+    }
+
+    /**
+     * @param weekStart The first day of the week, {@link java.util.Calendar#SUNDAY} through
+     *            {@link java.util.Calendar#SATURDAY}
+     * @return The number of week rows the given month spans
+     */
+    public static int numRows(int year, int month, int weekStart) {
+        return (dayOffset(year, month, weekStart) + daysInMonth(year, month) + DAYS_IN_WEEK - 1)
+                / DAYS_IN_WEEK;
+    }
+
+    /**
+     * @param row The week row of the cell, from 0
+     * @param column The column of the cell, from 0
+     * @param dayOffset The number of empty cells before the first day of the month, see
+     *            {@link #dayOffset(int, int, int)}
+     * @return The day of the month in the given cell, below 1 or past the end of the month for
+     * the empty cells around it
+     */
+    public static int dayAt(int row, int column, int dayOffset) {
+        return row * DAYS_IN_WEEK + column - dayOffset + 1;
+    }
+
+    private static Table table(int year) {
+        final Table table = sTable;
+        if (year >= table.mFirstYear && year <= table.mLastYear) {
+            return table;
+        }
+        return extend(year);
+    }
+
+    private static synchronized Table extend(int year) {
+        Table table = sTable;
+        if (year < table.mFirstYear || year > table.mLastYear) {
+            table = new Table(Math.min(year, table.mFirstYear), Math.max(year, table.mLastYear));
+            sTable = table;
+        }
+        return table;
+    }
+
+    private static final class Table {
+        final int mFirstYear;
+        final int mLastYear;
+        // The first day of every month in the table followed by the first day after it
+        final int[] mFirstDays;
+
+        Table(int firstYear, int lastYear) {
+            mFirstYear = firstYear;
+            mLastYear = lastYear;
+            final int months = (lastYear - firstYear + 1) * MONTHS_IN_YEAR;
+            mFirstDays = new int[months + 1];
+            int day = EpochDay.of(firstYear, 0, 1);
+            for (int i = 0; i < months; i++) {
+                mFirstDays[i] = day;
+                day += EpochDay.daysInMonth(firstYear + i / MONTHS_IN_YEAR, i % MONTHS_IN_YEAR);
+            }
+            mFirstDays[months] = day;
+        }
+
+        int index(int year, int month) {
+            return (year - mFirstYear) * MONTHS_IN_YEAR + month;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.borax12.materialdaterangepicker.date;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DateRangeSelectionTest {
+
+    @Test
+    public void setters() {
+        final DateRangeSelection selection = new DateRangeSelection(10, 20);
+        assertEquals(10, selection.getStart());
+        assertEquals(20, selection.getEnd());
+        assertFalse(selection.isSelectingEnd());
+
+        selection.setStart(30);
+        assertEquals(30, selection.getStart());
+        // The first and last days don't depend on the order of the ends
+        assertEquals(20, selection.getFirstDay());
+        assertEquals(30, selection.getLastDay());
+    }
+
+    @Test
+    public void pick_startsThenEndsRange() {
+        final DateRangeSelection selection = new DateRangeSelection(0, 0);
+        selection.pick(10);
+        assertEquals(10, selection.getStart());
+        assertEquals(10, selection.getEnd());
+        assertTrue(selection.isSelectingEnd());
+        assertEquals(10, selection.getLastPicked());
+
+        selection.pick(15);
+        assertEquals(10, selection.getStart());
+        assertEquals(15, selection.getEnd());
+        assertFalse(selection.isSelectingEnd());
+        assertEquals(15, selection.getLastPicked());
+
+        // The next pick starts a new range
+        selection.pick(12);
+        assertEquals(12, selection.getStart());
+        assertEquals(12, selection.getEnd());
+        assertTrue(selection.isSelectingEnd());
+    }
+
+    @Test
+    public void pick_sameDayEndsRange() {
+        final DateRangeSelection selection = new DateRangeSelection(0, 0);
+        selection.pick(10);
+        selection.pick(10);
+        assertEquals(10, selection.getStart());
+        assertEquals(10, selection.getEnd());
+        assertFalse(selection.isSelectingEnd());
+    }
+
+    @Test
+    public void pick_beforeStartRestartsRange() {
+        final DateRangeSelection selection = new DateRangeSelection(0, 0);
+        selection.pick(10);
+        selection.pick(5);
+        assertEquals(5, selection.getStart());
+        assertEquals(5, selection.getEnd());
+        assertTrue(selection.isSelectingEnd());
+        assertEquals(5, selection.getLastPicked());
+    }
+
+    @Test
+    public void startRange() {
+        final DateRangeSelection selection = new DateRangeSelection(3, 8);
+        selection.startRange(20);
+        assertEquals(20, selection.getStart());
+        assertEquals(20, selection.getEnd());
+        assertTrue(selection.isSelectingEnd());
+        selection.setSelectingEnd(false);
+        assertFalse(selection.isSelectingEnd());
+        assertEquals(20, selection.getLastPicked());
+    }
+}
@@ -0,0 +1,52 @@
+package com.borax12.materialdaterangepicker.date;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DayConstraintsTest {
+
+    @Test
+    public void isOutOfRange_unset() {
+        assertFalse(DayConstraints.isOutOfRange(0, EpochDay.MIN, EpochDay.MAX, null));
+        assertFalse(DayConstraints.isOutOfRange(-100000, EpochDay.MIN, EpochDay.MAX, null));
+        assertFalse(DayConstraints.isOutOfRange(100000, EpochDay.MIN, EpochDay.MAX, null));
+    }
+
+    @Test
+    public void isOutOfRange_minAndMaxAreInclusive() {
+        assertTrue(DayConstraints.isOutOfRange(9, 10, 20, null));
+        assertFalse(DayConstraints.isOutOfRange(10, 10, 20, null));
+        assertFalse(DayConstraints.isOutOfRange(20, 10, 20, null));
+        assertTrue(DayConstraints.isOutOfRange(21, 10, 20, null));
+    }
+
+    @Test
+    public void isOutOfRange_selectableDaysTakePrecedence() {
+        final EpochDaySet selectable = EpochDaySet.of(new int[] {5, 15, 25});
+        assertFalse(DayConstraints.isOutOfRange(5, 10, 20, selectable));
+        assertFalse(DayConstraints.isOutOfRange(25, 10, 20, selectable));
+        assertTrue(DayConstraints.isOutOfRange(14, 10, 20, selectable));
+        assertTrue(DayConstraints.isOutOfRange(0, EpochDay.MIN, EpochDay.MAX, new EpochDaySet()));
+    }
+
+    @Test
+    public void isHighlighted_range() {
+        assertTrue(DayConstraints.isHighlighted(10, 10, 12, null));
+        assertTrue(DayConstraints.isHighlighted(12, 10, 12, null));
+        assertFalse(DayConstraints.isHighlighted(9, 10, 12, null));
+        assertFalse(DayConstraints.isHighlighted(13, 10, 12, null));
+        // No range
+        assertFalse(DayConstraints.isHighlighted(0, EpochDay.MAX, EpochDay.MIN, null));
+    }
+
+    @Test
+    public void isHighlighted_daysOnTopOfRange() {
+        final EpochDaySet highlighted = EpochDaySet.of(new int[] {3, 30});
+        assertTrue(DayConstraints.isHighlighted(3, 10, 12, highlighted));
+        assertTrue(DayConstraints.isHighlighted(11, 10, 12, highlighted));
+        assertTrue(DayConstraints.isHighlighted(30, EpochDay.MAX, EpochDay.MIN, highlighted));
+        assertFalse(DayConstraints.isHighlighted(4, 10, 12, highlighted));
+    }
+}
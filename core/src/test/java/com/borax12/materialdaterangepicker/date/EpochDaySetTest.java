@@ -0,0 +1,167 @@
+package com.borax12.materialdaterangepicker.date;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EpochDaySetTest {
+
+    @Test
+    public void empty() {
+        final EpochDaySet set = new EpochDaySet();
+        assertTrue(set.isEmpty());
+        assertEquals(0, set.size());
+        assertEquals(EpochDay.MAX, set.first());
+        assertEquals(EpochDay.MIN, set.last());
+        assertFalse(set.contains(0));
+        assertArrayEquals(new int[0], set.toArray());
+    }
+
+    @Test
+    public void add_contains() {
+        final EpochDaySet set = new EpochDaySet();
+        set.add(100);
+        set.add(163);
+        set.add(164);
+        set.add(100);
+        assertEquals(3, set.size());
+        assertTrue(set.contains(100));
+        assertTrue(set.contains(163));
+        assertTrue(set.contains(164));
+        assertFalse(set.contains(99));
+        assertFalse(set.contains(101));
+        assertFalse(set.contains(165));
+        assertEquals(100, set.first());
+        assertEquals(164, set.last());
+    }
+
+    @Test
+    public void add_growsInBothDirections() {
+        final EpochDaySet set = new EpochDaySet();
+        set.add(1000);
+        set.add(-1000);
+        set.add(5000);
+        set.add(-70000);
+        set.add(70000);
+        assertArrayEquals(new int[] {-70000, -1000, 1000, 5000, 70000}, set.toArray());
+        assertEquals(-70000, set.first());
+        assertEquals(70000, set.last());
+        for (int day = -70000; day <= 70000; day++) {
+            assertEquals(Integer.toString(day),
+                    day == -70000 || day == -1000 || day == 1000 || day == 5000 || day == 70000,
+                    set.contains(day));
+        }
+    }
+
+    @Test
+    public void add_matchesTreeSet() {
+        final Random random = new Random(42);
+        final EpochDaySet set = new EpochDaySet();
+        final TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 5000; i++) {
+            final int day = random.nextInt(20000) - 10000;
+            set.add(day);
+            expected.add(day);
+        }
+        assertEquals(expected.size(), set.size());
+        assertEquals((int) expected.first(), set.first());
+        assertEquals((int) expected.last(), set.last());
+        assertArrayEquals(toArray(expected), set.toArray());
+    }
+
+    @Test
+    public void of_addAll() {
+        final EpochDaySet set = EpochDaySet.of(new int[] {5, -3, 5, 64, -64});
+        assertArrayEquals(new int[] {-64, -3, 5, 64}, set.toArray());
+        set.addAll(new int[0]);
+        assertEquals(4, set.size());
+        set.addAll(new int[] {-200, 200});
+        assertArrayEquals(new int[] {-200, -64, -3, 5, 64, 200}, set.toArray());
+    }
+
+    @Test
+    public void clear() {
+        final EpochDaySet set = EpochDaySet.of(new int[] {1, 2, 3});
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(2));
+        set.add(2);
+        assertArrayEquals(new int[] {2}, set.toArray());
+    }
+
+    @Test
+    public void byteArray_roundTripsEmpty() {
+        assertRoundTrip(new EpochDaySet());
+    }
+
+    @Test
+    public void byteArray_roundTripsSparseDaysAsGaps() {
+        final EpochDaySet set = EpochDaySet.of(new int[] {-30000, -1, 0, 19000, 19500, 40000});
+        assertEquals(1, set.toByteArray()[0]);
+        assertRoundTrip(set);
+    }
+
+    @Test
+    public void byteArray_roundTripsDenseDaysAsBitmap() {
+        final EpochDaySet set = new EpochDaySet();
+        // Every other day of a year, on both sides of the epoch
+        for (int day = -180; day < 185; day += 2) {
+            set.add(day);
+        }
+        final byte[] bytes = set.toByteArray();
+        assertEquals(0, bytes[0]);
+        assertTrue(bytes.length < 60);
+        assertRoundTrip(set);
+    }
+
+    @Test
+    public void byteArray_roundTripsRandomSets() {
+        final Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            final EpochDaySet set = new EpochDaySet();
+            final int count = random.nextInt(400);
+            final int span = 1 + random.nextInt(5000);
+            final int offset = random.nextInt(100000) - 50000;
+            for (int j = 0; j < count; j++) {
+                set.add(offset + random.nextInt(span));
+            }
+            assertRoundTrip(set);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fromByteArray_rejectsEmptyArray() {
+        EpochDaySet.fromByteArray(new byte[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fromByteArray_rejectsUnknownFormat() {
+        EpochDaySet.fromByteArray(new byte[] {42, 0});
+    }
+
+    private static void assertRoundTrip(EpochDaySet set) {
+        final EpochDaySet copy = EpochDaySet.fromByteArray(set.toByteArray());
+        assertArrayEquals(set.toArray(), copy.toArray());
+        assertEquals(set.size(), copy.size());
+        assertEquals(set.first(), copy.first());
+        assertEquals(set.last(), copy.last());
+        // The copy keeps growing like the original
+        copy.add(set.last() + 1000);
+        assertTrue(copy.contains(set.last() + 1000));
+    }
+
+    private static int[] toArray(TreeSet<Integer> days) {
+        final int[] array = new int[days.size()];
+        int i = 0;
+        for (int day : days) {
+            array[i++] = day;
+        }
+        return array;
+    }
+}
@@ -0,0 +1,101 @@
+package com.borax12.materialdaterangepicker.date;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EpochDayTest {
+
+    // About a thousand years on either side of 1970
+    private static final int FIRST_DAY = -365000;
+    private static final int LAST_DAY = 365000;
+
+    @Test
+    public void of_matchesLocalDate() {
+        for (int epochDay = FIRST_DAY; epochDay <= LAST_DAY; epochDay++) {
+            final LocalDate date = LocalDate.ofEpochDay(epochDay);
+            assertEquals(date.toString(), epochDay,
+                    EpochDay.of(date.getYear(), date.getMonthValue() - 1, date.getDayOfMonth()));
+        }
+    }
+
+    @Test
+    public void fields_matchLocalDate() {
+        for (int epochDay = FIRST_DAY; epochDay <= LAST_DAY; epochDay++) {
+            final LocalDate date = LocalDate.ofEpochDay(epochDay);
+            assertEquals(date.toString(), date.getYear(), EpochDay.year(epochDay));
+            assertEquals(date.toString(), date.getMonthValue() - 1, EpochDay.month(epochDay));
+            assertEquals(date.toString(), date.getDayOfMonth(), EpochDay.day(epochDay));
+            // ISO numbers Monday 1 to Sunday 7, Calendar Sunday 1 to Saturday 7
+            assertEquals(date.toString(), date.getDayOfWeek().getValue() % 7 + 1,
+                    EpochDay.dayOfWeek(epochDay));
+        }
+    }
+
+    @Test
+    public void of_knownDays() {
+        assertEquals(0, EpochDay.of(1970, Calendar.JANUARY, 1));
+        assertEquals(-1, EpochDay.of(1969, Calendar.DECEMBER, 31));
+        assertEquals(11016, EpochDay.of(2000, Calendar.FEBRUARY, 29));
+        assertEquals(Calendar.THURSDAY, EpochDay.dayOfWeek(0));
+        assertEquals(Calendar.WEDNESDAY, EpochDay.dayOfWeek(-1));
+        assertEquals(Calendar.TUESDAY, EpochDay.dayOfWeek(11016));
+    }
+
+    @Test
+    public void leapYears() {
+        assertTrue(EpochDay.isLeapYear(2000));
+        assertTrue(EpochDay.isLeapYear(2024));
+        assertTrue(EpochDay.isLeapYear(1600));
+        assertFalse(EpochDay.isLeapYear(1900));
+        assertFalse(EpochDay.isLeapYear(2100));
+        assertFalse(EpochDay.isLeapYear(2023));
+
+        assertEquals(29, EpochDay.daysInMonth(2000, Calendar.FEBRUARY));
+        assertEquals(28, EpochDay.daysInMonth(1900, Calendar.FEBRUARY));
+        assertEquals(29, EpochDay.daysInMonth(2024, Calendar.FEBRUARY));
+        assertEquals(30, EpochDay.daysInMonth(2024, Calendar.APRIL));
+        assertEquals(31, EpochDay.daysInMonth(2024, Calendar.DECEMBER));
+        assertEquals(EpochDay.of(1900, Calendar.MARCH, 1),
+                EpochDay.of(1900, Calendar.FEBRUARY, 28) + 1);
+        assertEquals(EpochDay.of(2000, Calendar.MARCH, 1),
+                EpochDay.of(2000, Calendar.FEBRUARY, 28) + 2);
+    }
+
+    @Test
+    public void ofLocalMillis_roundsDown() {
+        assertEquals(0, EpochDay.ofLocalMillis(0));
+        assertEquals(0, EpochDay.ofLocalMillis(86399999L));
+        assertEquals(1, EpochDay.ofLocalMillis(86400000L));
+        assertEquals(-1, EpochDay.ofLocalMillis(-1));
+        assertEquals(-1, EpochDay.ofLocalMillis(-86400000L));
+        assertEquals(-2, EpochDay.ofLocalMillis(-86400001L));
+    }
+
+    @Test
+    public void of_millisInZone() {
+        final TimeZone tokyo = TimeZone.getTimeZone("Asia/Tokyo");
+        final TimeZone newYork = TimeZone.getTimeZone("America/New_York");
+        // 1970-01-01T20:00Z is the 2nd in Tokyo and still the 1st in New York
+        final long millis = 20 * 3600000L;
+        assertEquals(1, EpochDay.of(millis, tokyo));
+        assertEquals(0, EpochDay.of(millis, newYork));
+        assertEquals(-1, EpochDay.of(0, newYork));
+    }
+
+    @Test
+    public void calendarRoundTrip() {
+        final Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        calendar.clear();
+        for (int epochDay = -1000; epochDay <= 1000; epochDay += 7) {
+            EpochDay.toCalendar(epochDay, calendar);
+            assertEquals(epochDay, EpochDay.of(calendar));
+        }
+    }
+}
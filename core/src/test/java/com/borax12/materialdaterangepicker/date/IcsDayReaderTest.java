@@ -0,0 +1,163 @@
+package com.borax12.materialdaterangepicker.date;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class IcsDayReaderTest {
+
+    private static final int FIRST_DAY = EpochDay.of(2024, Calendar.JANUARY, 1);
+    private static final int LAST_DAY = EpochDay.of(2024, Calendar.DECEMBER, 31);
+
+    @Test
+    public void read_fixture() throws IOException {
+        final EpochDaySet days = new EpochDaySet();
+        try (Reader in = new InputStreamReader(
+                IcsDayReaderTest.class.getResourceAsStream("events.ics"),
+                StandardCharsets.UTF_8)) {
+            assertEquals(11, new IcsDayReader(FIRST_DAY, LAST_DAY).read(in, days));
+        }
+        final EpochDaySet expected = EpochDaySet.of(new int[] {
+                // All day
+                day(Calendar.JANUARY, 1),
+                // Several days, DTEND is exclusive
+                day(Calendar.FEBRUARY, 10), day(Calendar.FEBRUARY, 11),
+                day(Calendar.FEBRUARY, 12),
+                // Past midnight
+                day(Calendar.MARCH, 1), day(Calendar.MARCH, 2),
+                // Until midnight
+                day(Calendar.MARCH, 5),
+                // Weekly on Mondays and Wednesdays, 4 times
+                day(Calendar.APRIL, 1), day(Calendar.APRIL, 3), day(Calendar.APRIL, 8),
+                day(Calendar.APRIL, 10),
+                // Monthly on the 31st, 4 times
+                day(Calendar.JANUARY, 31), day(Calendar.MARCH, 31), day(Calendar.MAY, 31),
+                day(Calendar.JULY, 31),
+                // Daily 5 times but the 2nd and 4th
+                day(Calendar.JUNE, 1), day(Calendar.JUNE, 3), day(Calendar.JUNE, 5),
+                // Weekly until the 22nd
+                day(Calendar.JULY, 1), day(Calendar.JULY, 8), day(Calendar.JULY, 15),
+                day(Calendar.JULY, 22),
+                // Every other day, 3 times
+                day(Calendar.AUGUST, 1), day(Calendar.AUGUST, 3), day(Calendar.AUGUST, 5),
+                // The alarm's duration doesn't replace the event's
+                day(Calendar.SEPTEMBER, 1), day(Calendar.SEPTEMBER, 2),
+                // Yearly since 2020
+                day(Calendar.DECEMBER, 25),
+        });
+        assertArrayEquals(expected.toArray(), days.toArray());
+    }
+
+    @Test
+    public void read_clipsToRange() throws IOException {
+        final EpochDaySet days = read(
+                "DTSTART;VALUE=DATE:20231230",
+                "DTEND;VALUE=DATE:20240103");
+        assertArrayEquals(new int[] {day(Calendar.JANUARY, 1), day(Calendar.JANUARY, 2)},
+                days.toArray());
+    }
+
+    @Test
+    public void read_ruleWithoutEndStopsAtLastDay() throws IOException {
+        final EpochDaySet days = read(
+                "DTSTART;VALUE=DATE:19000101",
+                "RRULE:FREQ=DAILY");
+        assertEquals(366, days.size());
+        assertEquals(FIRST_DAY, days.first());
+        assertEquals(LAST_DAY, days.last());
+    }
+
+    @Test
+    public void read_yearlyOnLeapDay() throws IOException {
+        final EpochDaySet days = read(
+                "DTSTART;VALUE=DATE:20200229",
+                "RRULE:FREQ=YEARLY;COUNT=2");
+        assertArrayEquals(new int[] {day(Calendar.FEBRUARY, 29)}, days.toArray());
+    }
+
+    @Test
+    public void read_byMonthDayList() throws IOException {
+        final EpochDaySet days = read(
+                "DTSTART;VALUE=DATE:20240101",
+                "RRULE:FREQ=MONTHLY;BYMONTHDAY=1,15,-1;COUNT=7");
+        assertArrayEquals(new int[] {
+                day(Calendar.JANUARY, 1), day(Calendar.JANUARY, 15), day(Calendar.JANUARY, 31),
+                day(Calendar.FEBRUARY, 1), day(Calendar.FEBRUARY, 15),
+                day(Calendar.FEBRUARY, 29), day(Calendar.MARCH, 1),
+        }, days.toArray());
+    }
+
+    @Test
+    public void read_yearlyByMonthList() throws IOException {
+        final EpochDaySet days = read(
+                "DTSTART;VALUE=DATE:20230110",
+                "RRULE:FREQ=YEARLY;BYMONTH=1,7");
+        assertArrayEquals(new int[] {day(Calendar.JANUARY, 10), day(Calendar.JULY, 10)},
+                days.toArray());
+    }
+
+    @Test
+    public void read_yearlyByMonthDayWithoutByMonth() throws IOException {
+        final EpochDaySet days = read(
+                "DTSTART;VALUE=DATE:20240101",
+                "RRULE:FREQ=YEARLY;BYMONTHDAY=-1;COUNT=3");
+        assertArrayEquals(new int[] {
+                day(Calendar.JANUARY, 31), day(Calendar.FEBRUARY, 29), day(Calendar.MARCH, 31),
+        }, days.toArray());
+    }
+
+    @Test
+    public void read_byMonthLimitsDailyAndWeeklyRules() throws IOException {
+        final EpochDaySet daily = read(
+                "DTSTART;VALUE=DATE:20240101",
+                "RRULE:FREQ=DAILY;BYMONTH=2;BYMONTHDAY=10,20");
+        assertArrayEquals(new int[] {day(Calendar.FEBRUARY, 10), day(Calendar.FEBRUARY, 20)},
+                daily.toArray());
+
+        final EpochDaySet weekly = read(
+                "DTSTART;VALUE=DATE:20240101",
+                "RRULE:FREQ=WEEKLY;BYDAY=FR;BYMONTH=3");
+        assertArrayEquals(new int[] {
+                day(Calendar.MARCH, 1), day(Calendar.MARCH, 8), day(Calendar.MARCH, 15),
+                day(Calendar.MARCH, 22), day(Calendar.MARCH, 29),
+        }, weekly.toArray());
+    }
+
+    @Test
+    public void read_unsupportedRuleKeepsFirstOccurrence() throws IOException {
+        final EpochDaySet days = read(
+                "DTSTART;VALUE=DATE:20240105",
+                "RRULE:FREQ=MONTHLY;BYDAY=1FR");
+        assertArrayEquals(new int[] {day(Calendar.JANUARY, 5)}, days.toArray());
+    }
+
+    @Test
+    public void read_skipsEventWithoutStart() throws IOException {
+        final EpochDaySet days = read("DTEND;VALUE=DATE:20240105");
+        assertEquals(0, days.size());
+    }
+
+    private static EpochDaySet read(String... eventLines) throws IOException {
+        final StringBuilder ics = new StringBuilder("BEGIN:VCALENDAR\r\nBEGIN:VEVENT\r\n");
+        for (String line : eventLines) {
+            ics.append(line).append("\r\n");
+        }
+        ics.append("END:VEVENT\r\nEND:VCALENDAR\r\n");
+        final EpochDaySet days = new EpochDaySet();
+        assertEquals(1, new IcsDayReader(FIRST_DAY, LAST_DAY)
+                .read(new StringReader(ics.toString()), days));
+        return days;
+    }
+
+    private static int day(int month, int day) {
+        return EpochDay.of(2024, month, day);
+    }
+}
@@ -0,0 +1,73 @@
+package com.borax12.materialdaterangepicker.date;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+
+import static org.junit.Assert.assertEquals;
+
+public class MonthLayoutTest {
+
+    @Test
+    public void defaultRange_matchesEpochDay() {
+        for (int year = MonthLayout.DEFAULT_FIRST_YEAR; year <= MonthLayout.DEFAULT_LAST_YEAR;
+                year++) {
+            for (int month = Calendar.JANUARY; month <= Calendar.DECEMBER; month++) {
+                assertMonth(year, month);
+            }
+        }
+    }
+
+    @Test
+    public void outsideDefaultRange_extendsTable() {
+        assertMonth(1582, Calendar.OCTOBER);
+        assertMonth(1899, Calendar.DECEMBER);
+        assertMonth(2101, Calendar.JANUARY);
+        assertMonth(2400, Calendar.FEBRUARY);
+        // Still right for the years in between once extended
+        assertMonth(1900, Calendar.JANUARY);
+        assertMonth(2000, Calendar.FEBRUARY);
+    }
+
+    @Test
+    public void rows() {
+        // February 2015 starts on a Sunday and has 28 days
+        assertEquals(Calendar.SUNDAY, MonthLayout.firstDayOfWeek(2015, Calendar.FEBRUARY));
+        assertEquals(0, MonthLayout.dayOffset(2015, Calendar.FEBRUARY, Calendar.SUNDAY));
+        assertEquals(4, MonthLayout.numRows(2015, Calendar.FEBRUARY, Calendar.SUNDAY));
+        assertEquals(6, MonthLayout.dayOffset(2015, Calendar.FEBRUARY, Calendar.MONDAY));
+        assertEquals(5, MonthLayout.numRows(2015, Calendar.FEBRUARY, Calendar.MONDAY));
+
+        // August 2015 starts on a Saturday and has 31 days
+        assertEquals(6, MonthLayout.dayOffset(2015, Calendar.AUGUST, Calendar.SUNDAY));
+        assertEquals(6, MonthLayout.numRows(2015, Calendar.AUGUST, Calendar.SUNDAY));
+        assertEquals(0, MonthLayout.dayOffset(2015, Calendar.AUGUST, Calendar.SATURDAY));
+        assertEquals(5, MonthLayout.numRows(2015, Calendar.AUGUST, Calendar.SATURDAY));
+    }
+
+    @Test
+    public void dayAt() {
+        final int offset = MonthLayout.dayOffset(2015, Calendar.AUGUST, Calendar.SUNDAY);
+        assertEquals(-5, MonthLayout.dayAt(0, 0, offset));
+        assertEquals(1, MonthLayout.dayAt(0, 6, offset));
+        assertEquals(2, MonthLayout.dayAt(1, 0, offset));
+        assertEquals(31, MonthLayout.dayAt(5, 1, offset));
+    }
+
+    private static void assertMonth(int year, int month) {
+        final String name = year + "-" + (month + 1);
+        final int first = EpochDay.of(year, month, 1);
+        assertEquals(name, first, MonthLayout.firstEpochDay(year, month));
+        assertEquals(name, EpochDay.daysInMonth(year, month),
+                MonthLayout.daysInMonth(year, month));
+        assertEquals(name, EpochDay.dayOfWeek(first), MonthLayout.firstDayOfWeek(year, month));
+        for (int weekStart = Calendar.SUNDAY; weekStart <= Calendar.SATURDAY; weekStart++) {
+            final int offset = MonthLayout.dayOffset(year, month, weekStart);
+            // The first cell after the offset is the first of the month
+            assertEquals(name, weekStart,
+                    EpochDay.dayOfWeek(first - offset));
+            assertEquals(name, (offset + EpochDay.daysInMonth(year, month) + 6) / 7,
+                    MonthLayout.numRows(year, month, weekStart));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.borax12.materialdaterangepicker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hit and miss counts of an internal cache, reported through
+ * {@link PickerMetrics#onCacheStats(String, long, long)}.
+ *
+ * Lookups are only counted while a {@link PickerMetricsRecorder} is collecting them, so that the
+ * caches don't update shared counters on every bind and draw when no one reads them.
+ */
+public final class CacheStats {
+
+    public static final CacheStats TYPEFACES = new CacheStats(PickerMetrics.CACHE_TYPEFACES);
+    public static final CacheStats DATE_LABELS = new CacheStats(PickerMetrics.CACHE_DATE_LABELS);
+    public static final CacheStats MONTH_DAY_MASKS =
+            new CacheStats(PickerMetrics.CACHE_MONTH_DAY_MASKS);
+    public static final CacheStats DAY_AVAILABILITY =
+            new CacheStats(PickerMetrics.CACHE_DAY_AVAILABILITY);
+    public static final CacheStats DAY_DECORATIONS =
+            new CacheStats(PickerMetrics.CACHE_DAY_DECORATIONS);
+
+    static final CacheStats[] ALL =
+            {TYPEFACES, DATE_LABELS, MONTH_DAY_MASKS, DAY_AVAILABILITY, DAY_DECORATIONS};
+
+    // The recorders collecting counts, only changed on the main thread
+    private static int sCollectorCount;
+    private static volatile boolean sCounting;
+
+    private final String mName;
+    private final AtomicLong mHits = new AtomicLong();
+    private final AtomicLong mMisses = new AtomicLong();
+
+    private CacheStats(String name) {
+        mName = name;
+    }
+
+    public void hit() {
+        if (sCounting) {
+            mHits.incrementAndGet();
+        }
+    }
+
+    public void miss() {
+        if (sCounting) {
+            mMisses.incrementAndGet();
+        }
+    }
+
+    /**
+     * Starts counting lookups, until as many calls to {@link #stopCounting()} are made. Called on
+     * the main thread.
+     */
+    static void startCounting() {
+        sCollectorCount++;
+        sCounting = true;
+    }
+
+    static void stopCounting() {
+        sCollectorCount--;
+        sCounting = sCollectorCount > 0;
+    }
+
+    long getHits() {
+        return mHits.get();
+    }
+
+    long getMisses() {
+        return mMisses.get();
+    }
+
+    /**
+     * Reports the lookups counted since the given counts were read.
+     */
+    void report(PickerMetrics metrics, long startHits, long startMisses) {
+        metrics.onCacheStats(mName, mHits.get() - startHits, mMisses.get() - startMisses);
+    }
+}
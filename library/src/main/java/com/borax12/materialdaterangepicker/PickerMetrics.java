@@ -0,0 +1,74 @@
+package com.borax12.materialdaterangepicker;
+
+/**
+ * Receives latency and cache statistics from a
+ * {@link com.borax12.materialdaterangepicker.date.DatePickerDialog} or
+ * {@link com.borax12.materialdaterangepicker.time.TimePickerDialog}, e.g. to report them as field
+ * telemetry. Override the callbacks of interest, the others do nothing.
+ *
+ * All callbacks are made on the main thread, and durations are in nanoseconds.
+ */
+public abstract class PickerMetrics {
+
+    /** The typefaces loaded from the assets, see {@link TypefaceHelper} */
+    public static final String CACHE_TYPEFACES = "typefaces";
+    /** The month titles, weekday labels, day numbers and year labels drawn by the date picker */
+    public static final String CACHE_DATE_LABELS = "date_labels";
+    /** The disabled, highlighted and range days worked out for each month view */
+    public static final String CACHE_MONTH_DAY_MASKS = "month_day_masks";
+    /** The available days of each month loaded from a day availability provider */
+    public static final String CACHE_DAY_AVAILABILITY = "day_availability";
+    /** The decorations of each month set by a day decorator */
+    public static final String CACHE_DAY_DECORATIONS = "day_decorations";
+
+    /**
+     * Called with the time from the start of the creation of the dialog views until their first
+     * frame has been drawn.
+     */
+    public void onTimeToFirstDraw(long durationNanos) {
+    }
+
+    /**
+     * Called with the time from the selection of a day or a time until the frame showing it has
+     * been drawn.
+     */
+    public void onSelectionRendered(long durationNanos) {
+    }
+
+    /**
+     * Called for one in {@link PickerMetricsRecorder#SAMPLE_RATE} binds of a month view to its
+     * month.
+     */
+    public void onMonthViewBind(long durationNanos) {
+    }
+
+    /**
+     * Called for one in {@link PickerMetricsRecorder#SAMPLE_RATE} draws of a month view.
+     */
+    public void onMonthViewDraw(long durationNanos) {
+    }
+
+    /**
+     * Called at the end of each fling of a month list, on API 24 and up where frame metrics are
+     * available.
+     *
+     * @param frameCount The number of frames drawn during the fling
+     * @param droppedFrameCount The number of those frames that took longer than a refresh
+     *            interval of the display
+     */
+    public void onFlingFrames(int frameCount, int droppedFrameCount) {
+    }
+
+    /**
+     * Called for each internal cache when the dialog is dismissed, with the lookups made since
+     * the dialog was shown, so that the counts of successive dialogs can be summed. The caches
+     * are shared by all the pickers of the process, so the counts also include the lookups of
+     * any other picker shown at the same time.
+     *
+     * @param cacheName The cache, e.g. {@link #CACHE_TYPEFACES}
+     * @param hits The lookups served by the cache
+     * @param misses The lookups that had to load or compute their value
+     */
+    public void onCacheStats(String cacheName, long hits, long misses) {
+    }
+}
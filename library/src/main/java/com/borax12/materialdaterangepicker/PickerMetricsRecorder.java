@@ -0,0 +1,212 @@
+package com.borax12.materialdaterangepicker;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.FrameMetrics;
+import android.view.View;
+import android.view.ViewTreeObserver;
+import android.view.Window;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Measures what a {@link PickerMetrics} reports for one dialog. Used by the pickers, which only
+ * create one when metrics have been set on the dialog.
+ */
+public final class PickerMetricsRecorder {
+
+    /** One in this many month view binds and draws is timed */
+    public static final int SAMPLE_RATE = 16;
+
+    private final PickerMetrics mMetrics;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private int mBindCount;
+    private int mDrawCount;
+    private boolean mCountingCacheStats;
+    // The hit and miss counts of each of CacheStats.ALL when counting started
+    private final long[] mCacheStatsStart = new long[CacheStats.ALL.length * 2];
+
+    // Fling frame counts, see trackFlings()
+    private final RecyclerView.OnScrollListener mFlingListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+            if (newState == RecyclerView.SCROLL_STATE_SETTLING) {
+                mFlinging = true;
+            } else if (mFlinging) {
+                mFlinging = false;
+                // Queued behind the frame metrics already delivered to the same handler
+                mHandler.post(mReportFlingFrames);
+            }
+        }
+    };
+    private final Runnable mReportFlingFrames = new Runnable() {
+        @Override
+        public void run() {
+            if (mFlingFrameCount > 0) {
+                mMetrics.onFlingFrames(mFlingFrameCount, mFlingDroppedFrameCount);
+            }
+            mFlingFrameCount = 0;
+            mFlingDroppedFrameCount = 0;
+        }
+    };
+    private boolean mFlinging;
+    private int mFlingFrameCount;
+    private int mFlingDroppedFrameCount;
+    private long mFrameIntervalNanos;
+    private Window.OnFrameMetricsAvailableListener mFrameMetricsListener;
+
+    public PickerMetricsRecorder(PickerMetrics metrics) {
+        mMetrics = metrics;
+    }
+
+    /**
+     * Reports the time from the given start until the next frame of the view has been drawn as
+     * the time to first draw.
+     */
+    public void reportFirstDraw(View view, long startNanos) {
+        afterNextDraw(view, startNanos, true);
+    }
+
+    /**
+     * Reports the time from the given start until the next frame of the view has been drawn as
+     * the time to render a selection.
+     */
+    public void reportSelectionRendered(View view, long startNanos) {
+        afterNextDraw(view, startNanos, false);
+    }
+
+    private void afterNextDraw(final View view, final long startNanos, final boolean firstDraw) {
+        view.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                view.getViewTreeObserver().removeOnPreDrawListener(this);
+                // Runs once the traversal drawing this frame is done
+                mHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        final long duration = System.nanoTime() - startNanos;
+                        if (firstDraw) {
+                            mMetrics.onTimeToFirstDraw(duration);
+                        } else {
+                            mMetrics.onSelectionRendered(duration);
+                        }
+                    }
+                });
+                return true;
+            }
+        });
+    }
+
+    /**
+     * @return Whether to time this bind of a month view
+     */
+    public boolean sampleBind() {
+        return (mBindCount++ & (SAMPLE_RATE - 1)) == 0;
+    }
+
+    public void reportBind(long durationNanos) {
+        mMetrics.onMonthViewBind(durationNanos);
+    }
+
+    /**
+     * @return Whether to time this draw of a month view
+     */
+    public boolean sampleDraw() {
+        return (mDrawCount++ & (SAMPLE_RATE - 1)) == 0;
+    }
+
+    public void reportDraw(long durationNanos) {
+        mMetrics.onMonthViewDraw(durationNanos);
+    }
+
+    /**
+     * Counts the frames of the flings of the given list, while the frame metrics of its window
+     * are being listened to, see {@link #startFrameMetrics(Window)}.
+     */
+    public void trackFlings(RecyclerView list) {
+        list.addOnScrollListener(mFlingListener);
+    }
+
+    /**
+     * Starts listening to the frame metrics of the window, on API 24 and up.
+     */
+    public void startFrameMetrics(Window window) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && mFrameMetricsListener == null) {
+            addFrameMetricsListener(window);
+        }
+    }
+
+    /**
+     * Stops listening to the frame metrics of the window.
+     */
+    public void stopFrameMetrics(Window window) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && mFrameMetricsListener != null) {
+            window.removeOnFrameMetricsAvailableListener(mFrameMetricsListener);
+            mFrameMetricsListener = null;
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.N)
+    private void addFrameMetricsListener(Window window) {
+        final float refreshRate = window.getWindowManager().getDefaultDisplay().getRefreshRate();
+        mFrameIntervalNanos = (long) (1000000000L / (refreshRate > 0 ? refreshRate : 60));
+        mFrameMetricsListener = new Window.OnFrameMetricsAvailableListener() {
+            @Override
+            public void onFrameMetricsAvailable(Window window, FrameMetrics frameMetrics,
+                    int dropCountSinceLastInvocation) {
+                if (!mFlinging) {
+                    return;
+                }
+                mFlingFrameCount++;
+                if (frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION) > mFrameIntervalNanos) {
+                    mFlingDroppedFrameCount++;
+                }
+            }
+        };
+        window.addOnFrameMetricsAvailableListener(mFrameMetricsListener, mHandler);
+    }
+
+    /**
+     * Starts counting the lookups of the internal caches, until {@link #reportCacheStats()} or
+     * {@link #stopCacheStats()} is called.
+     */
+    public void startCacheStats() {
+        if (!mCountingCacheStats) {
+            mCountingCacheStats = true;
+            for (int i = 0; i < CacheStats.ALL.length; i++) {
+                mCacheStatsStart[2 * i] = CacheStats.ALL[i].getHits();
+                mCacheStatsStart[2 * i + 1] = CacheStats.ALL[i].getMisses();
+            }
+            CacheStats.startCounting();
+        }
+    }
+
+    /**
+     * Stops counting the lookups of the internal caches for this recorder.
+     */
+    public void stopCacheStats() {
+        if (mCountingCacheStats) {
+            mCountingCacheStats = false;
+            CacheStats.stopCounting();
+        }
+    }
+
+    /**
+     * Reports the hits and misses of all the internal caches since {@link #startCacheStats()},
+     * and stops counting them. Does nothing if they aren't being counted.
+     */
+    public void reportCacheStats() {
+        if (!mCountingCacheStats) {
+            return;
+        }
+        for (int i = 0; i < CacheStats.ALL.length; i++) {
+            CacheStats.ALL[i].report(mMetrics, mCacheStatsStart[2 * i],
+                    mCacheStatsStart[2 * i + 1]);
+        }
+        stopCacheStats();
+    }
+}
@@ -0,0 +1,39 @@
+package com.borax12.materialdaterangepicker;
+
+import androidx.core.os.TraceCompat;
+
+/**
+ * Trace sections around the hot paths of the pickers, so that their work shows up by name in
+ * systrace and Perfetto captures of the app.
+ *
+ * The sections are compiled in only when the library is built with the {@code PICKER_TRACING}
+ * Gradle property set to true; otherwise {@link #ENABLED} is a false constant and the calls
+ * are no-ops.
+ */
+public final class PickerTrace {
+
+    public static final boolean ENABLED = BuildConfig.PICKER_TRACING;
+
+    private PickerTrace() {
+    }
+
+    /**
+     * Begins a section, which must be ended on the same thread by {@link #endSection()}.
+     *
+     * @param sectionName The name of the section as it appears in the trace
+     */
+    public static void beginSection(String sectionName) {
+        if (ENABLED) {
+            TraceCompat.beginSection(sectionName);
+        }
+    }
+
+    /**
+     * Ends the innermost section begun on this thread.
+     */
+    public static void endSection() {
+        if (ENABLED) {
+            TraceCompat.endSection();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.borax12.materialdaterangepicker;
+
+import android.content.Context;
+import android.util.TypedValue;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
+
+/**
+ * A dialog layout inflated ahead of time, off the main thread as far as its views allow, so that
+ * showing the dialog only has to attach it.
+ */
+public class PrewarmedLayout {
+
+    private final int mOrientation;
+    private View mView;
+
+    /**
+     * Starts inflating the layout. Must be called from the main thread.
+     *
+     * @param context The context the dialog will be shown from
+     * @param layoutId The layout of the dialog
+     */
+    public PrewarmedLayout(Context context, int layoutId) {
+        mOrientation = context.getResources().getConfiguration().orientation;
+        new AsyncLayoutInflater(getDialogContext(context)).inflate(layoutId, null,
+                new AsyncLayoutInflater.OnInflateFinishedListener() {
+                    @Override
+                    public void onInflateFinished(@NonNull View view, int resid, ViewGroup parent) {
+                        mView = view;
+                    }
+                });
+    }
+
+    /**
+     * Hands over the inflated layout. It can only be taken once.
+     *
+     * @param context The context the dialog is being shown from
+     * @return The inflated layout, or null if it isn't ready yet or was inflated for another
+     * orientation
+     */
+    public View take(Context context) {
+        final View view = mView;
+        mView = null;
+        if (view == null || view.getParent() != null
+                || context.getResources().getConfiguration().orientation != mOrientation) {
+            return null;
+        }
+        return view;
+    }
+
+    /**
+     * @return A context themed like the dialogs shown from the given context
+     */
+    private static Context getDialogContext(Context context) {
+        TypedValue outValue = new TypedValue();
+        context.getTheme().resolveAttribute(android.R.attr.dialogTheme, outValue, true);
+        return new ContextThemeWrapper(context, outValue.resourceId);
+    }
+}
@@ -28,11 +28,13 @@ public class TypefaceHelper {
     public static Typeface get(Context c, String name) {
         synchronized (cache) {
             if (!cache.containsKey(name)) {
+                CacheStats.TYPEFACES.miss();
                 Typeface t = Typeface.createFromAsset(
                         c.getAssets(), String.format("fonts/%s.ttf", name));
                 cache.put(name, t);
                 return t;
             }
+            CacheStats.TYPEFACES.hit();
             return cache.get(name);
         }
     }
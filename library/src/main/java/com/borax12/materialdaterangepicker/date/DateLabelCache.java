@@ -0,0 +1,189 @@
+package com.borax12.materialdaterangepicker.date;
+
+import android.content.Context;
+import android.text.format.DateUtils;
+import android.util.SparseArray;
+
+import com.borax12.materialdaterangepicker.CacheStats;
+
+import java.util.Calendar;
+import java.util.Formatter;
+import java.util.Locale;
+
+/**
+ * Caches the localized strings drawn by every {@link MonthView}, so that drawing a month doesn't
+ * format anything once its labels have been seen.
+ *
+ * Month titles are keyed by year and month, weekday labels by {@link Calendar#DAY_OF_WEEK}, which
+ * keeps them valid whatever day the week starts on, and day numbers and year labels are formatted
+ * once with the digits of the locale. Everything is dropped when the default locale changes.
+ *
+ * Reads don't take a lock, as titles are also formatted ahead of the scroll on background
+ * threads: the labels of a locale are published as a {@link Labels} snapshot, and a new label is
+ * added by publishing a copy of the array holding it, which is never modified afterwards.
+ *
+ * Only lookups that can miss are counted in {@link CacheStats#DATE_LABELS}: month titles, year
+ * labels and the snapshot of the locale. Weekday labels and day numbers are read straight from
+ * the snapshot.
+ */
+final class DateLabelCache {
+
+    private static final int MONTH_TITLE_FLAGS = DateUtils.FORMAT_SHOW_DATE
+            | DateUtils.FORMAT_SHOW_YEAR | DateUtils.FORMAT_NO_MONTH_DAY;
+
+    private static volatile Labels sLabels;
+
+    private DateLabelCache() {
+    }
+
+    /**
+     * @param month The month (0-11)
+     * @return The localized month and year, e.g. "March 2016"
+     */
+    static String getMonthTitle(Context context, int year, int month) {
+        final Labels labels = getLabels();
+        final int key = year * 12 + month;
+        String title = labels.mMonthTitles.get(key);
+        if (title == null) {
+            CacheStats.DATE_LABELS.miss();
+            final Calendar calendar = Calendar.getInstance(labels.mLocale);
+            calendar.clear();
+            calendar.set(year, month, 1);
+            final long millis = calendar.getTimeInMillis();
+            final Formatter formatter = new Formatter(new StringBuilder(50), labels.mLocale);
+            title = DateUtils.formatDateRange(context, formatter, millis, millis,
+                    MONTH_TITLE_FLAGS, null).toString();
+            synchronized (labels) {
+                labels.mMonthTitles = with(labels.mMonthTitles, key, title);
+            }
+        } else {
+            CacheStats.DATE_LABELS.hit();
+        }
+        return title;
+    }
+
+    /**
+     * @param dayOfWeek {@link Calendar#SUNDAY} through {@link Calendar#SATURDAY}
+     * @return The single glyph used to label the given day in the week header
+     */
+    static String getWeekdayLabel(int dayOfWeek) {
+        return getLabels().mWeekdayLabels[dayOfWeek];
+    }
+
+    /**
+     * @return The localized numbers of the days of a month, indexed by day of the month. The
+     * returned array is shared and must not be modified; a new one is returned after the default
+     * locale changes.
+     */
+    static String[] getDayNumbers() {
+        return getLabels().mDayNumbers;
+    }
+
+    /**
+     * @return The label of the given year in the year list
+     */
+    static String getYearLabel(int year) {
+        final Labels labels = getLabels();
+        String label = labels.mYearLabels.get(year);
+        if (label == null) {
+            CacheStats.DATE_LABELS.miss();
+            label = String.format(labels.mLocale, "%d", year);
+            synchronized (labels) {
+                labels.mYearLabels = with(labels.mYearLabels, year, label);
+            }
+        } else {
+            CacheStats.DATE_LABELS.hit();
+        }
+        return label;
+    }
+
+    /**
+     * Formats everything a picker showing the given year is going to draw first. Safe to call
+     * from a background thread.
+     */
+    static void prewarm(Context context, int year, int minYear, int maxYear) {
+        for (int month = Calendar.JANUARY; month <= Calendar.DECEMBER; month++) {
+            getMonthTitle(context, year, month);
+        }
+        for (int y = minYear; y <= maxYear; y++) {
+            getYearLabel(y);
+        }
+    }
+
+    /**
+     * @return The labels of the default locale, formatting its weekday labels and day numbers
+     * if it changed
+     */
+    private static Labels getLabels() {
+        final Locale locale = Locale.getDefault();
+        Labels labels = sLabels;
+        if (labels == null || !labels.mLocale.equals(locale)) {
+            // Threads racing here format the same labels, and any of them can be kept
+            CacheStats.DATE_LABELS.miss();
+            labels = new Labels(locale);
+            sLabels = labels;
+        }
+        return labels;
+    }
+
+    /**
+     * @return A copy of the given labels with the given one added. Callers hold the lock of the
+     * {@link Labels} the array belongs to, so that no label is lost.
+     */
+    private static SparseArray<String> with(SparseArray<String> labels, int key, String label) {
+        final SparseArray<String> copy = labels.clone();
+        copy.put(key, label);
+        return copy;
+    }
+
+    /**
+     * The labels of one locale.
+     */
+    private static final class Labels {
+        final Locale mLocale;
+        // Indexed by Calendar.SUNDAY through Calendar.SATURDAY
+        final String[] mWeekdayLabels = new String[Calendar.SATURDAY + 1];
+        // Indexed by day of the month, 1 through 31
+        final String[] mDayNumbers = new String[32];
+        // Replaced, never modified, once published
+        volatile SparseArray<String> mMonthTitles = new SparseArray<>();
+        volatile SparseArray<String> mYearLabels = new SparseArray<>();
+
+        Labels(Locale locale) {
+            mLocale = locale;
+            final Calendar calendar = Calendar.getInstance(locale);
+            for (int dayOfWeek = Calendar.SUNDAY; dayOfWeek <= Calendar.SATURDAY; dayOfWeek++) {
+                mWeekdayLabels[dayOfWeek] = createWeekdayLabel(calendar, dayOfWeek, locale);
+            }
+            mDayNumbers[0] = "";
+            for (int day = 1; day < mDayNumbers.length; day++) {
+                // Formatting with the locale picks up native digits, e.g. for Arabic or Persian
+                mDayNumbers[day] = String.format(locale, "%d", day);
+            }
+        }
+    }
+
+    private static String createWeekdayLabel(Calendar calendar, int dayOfWeek, Locale locale) {
+        calendar.set(Calendar.DAY_OF_WEEK, dayOfWeek);
+        String localWeekDisplayName = calendar.getDisplayName(Calendar.DAY_OF_WEEK, Calendar.SHORT, locale);
+        String weekString = localWeekDisplayName.toUpperCase(locale).substring(0, 1);
+
+        if (locale.equals(Locale.CHINA) || locale.equals(Locale.CHINESE) || locale.equals(Locale.SIMPLIFIED_CHINESE) || locale.equals(Locale.TRADITIONAL_CHINESE)) {
+            int len = localWeekDisplayName.length();
+            weekString = localWeekDisplayName.substring(len -1, len);
+        }
+
+        if (locale.getLanguage().equals("he") || locale.getLanguage().equals("iw")) {
+            if(dayOfWeek != Calendar.SATURDAY) {
+                int len = localWeekDisplayName.length();
+                weekString = localWeekDisplayName.substring(len - 2, len - 1);
+            }
+            else {
+                // I know this is duplication, but it makes the code easier to grok by
+                // having all hebrew code in the same block
+                weekString = localWeekDisplayName.toUpperCase(locale).substring(0, 1);
+            }
+        }
+        return weekString;
+    }
+}
@@ -16,7 +16,7 @@
 
 package com.borax12.materialdaterangepicker.date;
 
-import java.util.Calendar;
+import com.borax12.materialdaterangepicker.PickerMetricsRecorder;
 
 /**
  * Controller class to communicate among the various components of the date picker dialog.
@@ -25,19 +25,35 @@ public interface DatePickerController {
 
     void onYearSelected(int year);
 
-    void onDayOfMonthSelected(int year, int month, int day);
+    void onDayOfMonthSelected(int epochDay);
 
     void registerOnDateChangedListener(com.borax12.materialdaterangepicker.date.DatePickerDialog.OnDateChangedListener listener);
 
     void unregisterOnDateChangedListener(com.borax12.materialdaterangepicker.date.DatePickerDialog.OnDateChangedListener listener);
 
-    com.borax12.materialdaterangepicker.date.MonthAdapter.CalendarDay getSelectedDay();
+    int getSelectedEpochDay();
 
     boolean isThemeDark();
     
-    Calendar[] getHighlightedDays();
+    EpochDaySet getHighlightedDaySet();
 
-    Calendar[] getSelectableDays();
+    int getHighlightedRangeStart();
+
+    int getHighlightedRangeEnd();
+
+    /**
+     * @return The first day of the range edited in a single calendar, or {@link EpochDay#MAX} if
+     * each calendar only picks one date
+     */
+    int getSelectedRangeStart();
+
+    /**
+     * @return The last day of the range edited in a single calendar, or {@link EpochDay#MIN} if
+     * each calendar only picks one date
+     */
+    int getSelectedRangeEnd();
+
+    EpochDaySet getSelectableDaySet();
 
     int getFirstDayOfWeek();
 
@@ -45,9 +61,58 @@ public interface DatePickerController {
 
     int getMaxYear();
 
-    Calendar getMinDate();
-
-    Calendar getMaxDate();
+    int getMinEpochDay();
+
+    int getMaxEpochDay();
+
+    /**
+     * @return A number that changes whenever the selectable, disabled or highlighted days change,
+     * so views can keep what they derived from them until it does
+     */
+    int getConfigGeneration();
+
+    /**
+     * @param month The month (0-11)
+     * @return The days of the month that the {@link DayAvailabilityProvider} reports as
+     * available, bit (day - 1) for each day, all of them if there is no provider, or
+     * {@code -1} while they are being loaded
+     */
+    int getAvailableDays(int year, int month);
+
+    /**
+     * Starts loading the available days of the given months in the background, if they aren't
+     * already known. Does nothing if there is no {@link DayAvailabilityProvider}.
+     *
+     * @param month The first month (0-11)
+     * @param monthCount How many consecutive months to load, from the first one on
+     */
+    void requestAvailableDays(int year, int month, int monthCount);
+
+    /**
+     * Cancels the loading of available days that hasn't started yet for months other than the
+     * given ones, e.g. for months that have been scrolled past.
+     *
+     * @param month The first month to keep loading (0-11)
+     * @param monthCount How many consecutive months to keep loading, from the first one on
+     */
+    void cancelAvailableDaysOutside(int year, int month, int monthCount);
+
+    /**
+     * @param month The month (0-11)
+     * @return The decorations of the days of the month set by the {@link DayDecorator}, or null
+     * if there is no decorator or it didn't decorate any day of the month
+     */
+    DayDecorations getDayDecorations(int year, int month);
+
+    /**
+     * @return The intensities to tint the days with, or null if there are none
+     */
+    DayHeatmap getHeatmap();
+
+    /**
+     * @return The recorder of the metrics of the picker, or null if none were asked for
+     */
+    PickerMetricsRecorder getMetricsRecorder();
 
     void tryVibrate();
 }
@@ -19,12 +19,18 @@ package com.borax12.materialdaterangepicker.date;
 import android.animation.ObjectAnimator;
 import android.app.Activity;
 import android.app.DialogFragment;
+import android.content.Context;
 import android.content.DialogInterface;
 import android.content.res.Resources;
+import android.os.AsyncTask;
 import android.os.Bundle;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.Process;
 
 import androidx.annotation.NonNull;
 import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.RecyclerView;
 import android.text.format.DateUtils;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -40,16 +46,24 @@ import android.widget.TabHost;
 import android.widget.TextView;
 
 import com.borax12.materialdaterangepicker.HapticFeedbackController;
+import com.borax12.materialdaterangepicker.PickerMetrics;
+import com.borax12.materialdaterangepicker.PickerMetricsRecorder;
+import com.borax12.materialdaterangepicker.PickerTrace;
+import com.borax12.materialdaterangepicker.PrewarmedLayout;
 import com.borax12.materialdaterangepicker.R;
 import com.borax12.materialdaterangepicker.TypefaceHelper;
 import com.borax12.materialdaterangepicker.Utils;
 
 import java.text.SimpleDateFormat;
-import java.util.Arrays;
 import java.util.Calendar;
-import java.util.GregorianCalendar;
 import java.util.HashSet;
 import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 
 
@@ -95,6 +109,9 @@ public class DatePickerDialog extends DialogFragment implements
     private static final String KEY_ACCENT = "accent";
     private static final String KEY_VIBRATE = "vibrate";
     private static final String KEY_DISMISS = "dismiss";
+    private static final String KEY_AUTO_HIGHLIGHT = "auto_highlight";
+    private static final String KEY_SINGLE_CALENDAR_RANGE = "single_calendar_range";
+    private static final String KEY_SELECTING_END = "selecting_end";
 
     private static final int DEFAULT_START_YEAR = 1900;
     private static final int DEFAULT_END_YEAR = 2100;
@@ -107,6 +124,9 @@ public class DatePickerDialog extends DialogFragment implements
 
     private Calendar mCalendar = Calendar.getInstance();
     private Calendar mCalendarEnd = Calendar.getInstance();
+    // Epoch days mirroring mCalendar and mCalendarEnd, see EpochDay
+    private final DateRangeSelection mSelection =
+            new DateRangeSelection(EpochDay.of(mCalendar), EpochDay.of(mCalendarEnd));
     private OnDateSetListener mCallBack;
     private HashSet<OnDateChangedListener> mListeners = new HashSet<>();
     private DialogInterface.OnCancelListener mOnCancelListener;
@@ -119,7 +139,7 @@ public class DatePickerDialog extends DialogFragment implements
     private TextView mSelectedMonthTextView;
     private TextView mSelectedDayTextView;
     private TextView mYearView;
-    private com.borax12.materialdaterangepicker.date.DayPickerView mDayPickerView;
+    private com.borax12.materialdaterangepicker.date.DayPickerRecyclerView mDayPickerView;
     private com.borax12.materialdaterangepicker.date.YearPickerView mYearPickerView;
 
     private int mCurrentView = UNINITIALIZED;
@@ -131,13 +151,19 @@ public class DatePickerDialog extends DialogFragment implements
     private int mMaxYear = DEFAULT_END_YEAR;
     private Calendar mMinDate;
     private Calendar mMaxDate;
-    private Calendar[] highlightedDays;
-    private Calendar[] selectableDays;
+    private int mMinDay = EpochDay.MIN;
+    private int mMaxDay = EpochDay.MAX;
+    private EpochDaySet highlightedDays;
+    private EpochDaySet selectableDays;
     private Calendar mMinDateEnd;
     private Calendar mMaxDateEnd;
-    private Calendar[] highlightedDaysEnd;
-    private Calendar[] selectableDaysEnd;
+    private EpochDaySet highlightedDaysEnd;
+    private EpochDaySet selectableDaysEnd;
     private boolean mAutoHighlight = false;
+    // Whether the whole range is picked in the start calendar
+    private boolean mSingleCalendarRange = false;
+    // Bumped whenever the disabled or highlighted days change
+    private int mConfigGeneration;
 
     private boolean mThemeDark;
     private int mAccentColor = -1;
@@ -159,10 +185,40 @@ public class DatePickerDialog extends DialogFragment implements
     private TextView mSelectedMonthTextViewEnd;
     private TextView mSelectedDayTextViewEnd;
     private TextView mYearViewEnd;
-    private com.borax12.materialdaterangepicker.date.SimpleDayPickerView mDayPickerViewEnd;
+    private com.borax12.materialdaterangepicker.date.DayPickerRecyclerView mDayPickerViewEnd;
     private com.borax12.materialdaterangepicker.date.YearPickerView mYearPickerViewEnd;
     private com.borax12.materialdaterangepicker.date.AccessibleDateAnimator mAnimatorEnd;
     private int tabTag=1;
+    // Shared by the month lists of both tabs
+    private RecyclerView.RecycledViewPool mMonthViewPool;
+    // Where to restore the end pickers to once they are built
+    private int mPendingListPositionEnd = -1;
+    private int mPendingListPositionOffsetEnd;
+    private int mPendingCurrentViewEnd = MONTH_AND_DAY_VIEW;
+    // The dialog layout inflated by prewarm(), if any
+    private PrewarmedLayout mPrewarmedLayout;
+    // Null unless setPickerMetrics() was called
+    private PickerMetricsRecorder mMetricsRecorder;
+    // Null unless setDayAvailabilityProvider() was called
+    private DayAvailabilityCache mAvailableDays;
+    // Asks the provider when no executor was given for it, created along with the first provider
+    private ThreadPoolExecutor mAvailabilityExecutor;
+    // Null unless setDayDecorator() was called
+    private DayDecorationCache mDayDecorations;
+    // Null unless setHeatmap() was called
+    private DayHeatmap mHeatmap;
+    private final DayAvailabilityCache.OnMonthLoadedListener mOnMonthLoadedListener =
+            new DayAvailabilityCache.OnMonthLoadedListener() {
+        @Override
+        public void onMonthLoaded(int year, int month) {
+            if (mDayPickerView != null) {
+                mDayPickerView.refreshMonth(year, month);
+            }
+            if (mDayPickerViewEnd != null) {
+                mDayPickerViewEnd.refreshMonth(year, month);
+            }
+        }
+    };
     private String startTitle;
     private String endTitle;
 
@@ -243,6 +299,9 @@ public class DatePickerDialog extends DialogFragment implements
         mCalendarEnd.set(Calendar.YEAR, yearEnd);
         mCalendarEnd.set(Calendar.MONTH, montOfYearEnd);
         mCalendarEnd.set(Calendar.DAY_OF_MONTH, dayOfMonthEnd);
+        mSelection.setStart(EpochDay.of(year, monthOfYear, dayOfMonth));
+        mSelection.setEnd(EpochDay.of(yearEnd, montOfYearEnd, dayOfMonthEnd));
+        onSelectionChanged();
 
         mThemeDark = false;
         mAccentColor = -1;
@@ -263,6 +322,8 @@ public class DatePickerDialog extends DialogFragment implements
             mCalendarEnd.set(Calendar.YEAR, savedInstanceState.getInt(KEY_SELECTED_YEAR_END));
             mCalendarEnd.set(Calendar.MONTH, savedInstanceState.getInt(KEY_SELECTED_MONTH_END));
             mCalendarEnd.set(Calendar.DAY_OF_MONTH, savedInstanceState.getInt(KEY_SELECTED_DAY_END));
+            mSelection.setStart(EpochDay.of(mCalendar));
+            mSelection.setEnd(EpochDay.of(mCalendarEnd));
         }
     }
 
@@ -285,37 +346,58 @@ public class DatePickerDialog extends DialogFragment implements
         outState.putInt(KEY_CURRENT_VIEW_END, mCurrentViewEnd);
         int listPosition = -1;
         int listPositionEnd = -1;
+        if (mDayPickerViewEnd == null) {
+            // The end pickers were never shown, keep what they were to be restored to
+            listPositionEnd = mPendingListPositionEnd;
+            outState.putInt(KEY_LIST_POSITION_OFFSET_END, mPendingListPositionOffsetEnd);
+        }
         if (mCurrentView == MONTH_AND_DAY_VIEW||mCurrentViewEnd==MONTH_AND_DAY_VIEW) {
             listPosition = mDayPickerView.getMostVisiblePosition();
-            listPositionEnd = mDayPickerViewEnd.getMostVisiblePosition();
+            if (mDayPickerViewEnd != null) {
+                listPositionEnd = mDayPickerViewEnd.getMostVisiblePosition();
+            }
 
         } else if (mCurrentView == YEAR_VIEW||mCurrentViewEnd==YEAR_VIEW) {
             listPosition = mYearPickerView.getFirstVisiblePosition();
-            listPositionEnd = mYearPickerViewEnd.getFirstVisiblePosition();
             outState.putInt(KEY_LIST_POSITION_OFFSET, mYearPickerView.getFirstPositionOffset());
-            outState.putInt(KEY_LIST_POSITION_OFFSET_END, mYearPickerViewEnd.getFirstPositionOffset());
+            if (mYearPickerViewEnd != null) {
+                listPositionEnd = mYearPickerViewEnd.getFirstVisiblePosition();
+                outState.putInt(KEY_LIST_POSITION_OFFSET_END, mYearPickerViewEnd.getFirstPositionOffset());
+            }
         }
         outState.putInt(KEY_LIST_POSITION, listPosition);
         outState.putInt(KEY_LIST_POSITION_END, listPositionEnd);
-        outState.putSerializable(KEY_MIN_DATE, mMinDate);
-        outState.putSerializable(KEY_MAX_DATE, mMaxDate);
-        outState.putSerializable(KEY_MIN_DATE_END, mMinDateEnd);
-        outState.putSerializable(KEY_MAX_DATE_END, mMaxDateEnd);
-        outState.putSerializable(KEY_HIGHLIGHTED_DAYS, highlightedDays);
-        outState.putSerializable(KEY_SELECTABLE_DAYS, selectableDays);
-        outState.putSerializable(KEY_HIGHLIGHTED_DAYS_END, highlightedDaysEnd);
-        outState.putSerializable(KEY_SELECTABLE_DAYS_END, selectableDaysEnd);
+        // Days are saved as epoch days and packed day sets rather than serialized calendars,
+        // which keeps a year of highlighted days down to a few dozen bytes
+        outState.putInt(KEY_MIN_DATE, mMinDay);
+        outState.putInt(KEY_MAX_DATE, mMaxDay);
+        outState.putInt(KEY_MIN_DATE_END, toEpochDay(mMinDateEnd, EpochDay.MIN));
+        outState.putInt(KEY_MAX_DATE_END, toEpochDay(mMaxDateEnd, EpochDay.MAX));
+        outState.putByteArray(KEY_HIGHLIGHTED_DAYS, toByteArray(highlightedDays));
+        outState.putByteArray(KEY_SELECTABLE_DAYS, toByteArray(selectableDays));
+        outState.putByteArray(KEY_HIGHLIGHTED_DAYS_END, toByteArray(highlightedDaysEnd));
+        outState.putByteArray(KEY_SELECTABLE_DAYS_END, toByteArray(selectableDaysEnd));
         outState.putBoolean(KEY_THEME_DARK, mThemeDark);
         outState.putInt(KEY_ACCENT, mAccentColor);
         outState.putBoolean(KEY_VIBRATE, mVibrate);
         outState.putBoolean(KEY_DISMISS, mDismissOnPause);
+        outState.putBoolean(KEY_AUTO_HIGHLIGHT, mAutoHighlight);
+        outState.putBoolean(KEY_SINGLE_CALENDAR_RANGE, mSingleCalendarRange);
+        outState.putBoolean(KEY_SELECTING_END, mSelection.isSelectingEnd());
     }
 
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container,
             Bundle savedInstanceState) {
+        PickerTrace.beginSection("DatePickerDialog#onCreateView");
+        final long createViewStart = System.nanoTime();
+        if (mMetricsRecorder != null) mMetricsRecorder.startCacheStats();
         getDialog().getWindow().requestFeature(Window.FEATURE_NO_TITLE);
-        View view = inflater.inflate(R.layout.range_date_picker_dialog, null);
+        View view = mPrewarmedLayout != null ? mPrewarmedLayout.take(getActivity()) : null;
+        mPrewarmedLayout = null;
+        if (view == null) {
+            view = inflater.inflate(R.layout.range_date_picker_dialog, null);
+        }
 
         tabHost = (TabHost) view.findViewById(R.id.range_tabHost);
         tabHost.findViewById(R.id.range_tabHost);
@@ -333,6 +415,10 @@ public class DatePickerDialog extends DialogFragment implements
 
         tabHost.addTab(startDatePage);
         tabHost.addTab(endDatePage);
+        if (mSingleCalendarRange) {
+            // The start calendar picks both ends, so the end tab is never shown
+            tabHost.getTabWidget().setVisibility(View.GONE);
+        }
 
         mDayOfWeekView = (TextView) view.findViewById(R.id.range_date_picker_header);
         mMonthAndDayView = (LinearLayout) view.findViewById(R.id.range_date_picker_month_and_day);
@@ -368,25 +454,35 @@ public class DatePickerDialog extends DialogFragment implements
             listPositionOffset = savedInstanceState.getInt(KEY_LIST_POSITION_OFFSET);
             listPositionEnd = savedInstanceState.getInt(KEY_LIST_POSITION_END);
             listPositionOffsetEnd = savedInstanceState.getInt(KEY_LIST_POSITION_OFFSET_END);
-            mMinDate = (Calendar)savedInstanceState.getSerializable(KEY_MIN_DATE);
-            mMaxDate = (Calendar)savedInstanceState.getSerializable(KEY_MAX_DATE);
-            mMinDateEnd = (Calendar)savedInstanceState.getSerializable(KEY_MIN_DATE_END);
-            mMaxDateEnd= (Calendar)savedInstanceState.getSerializable(KEY_MAX_DATE_END);
-            highlightedDays = (Calendar[])savedInstanceState.getSerializable(KEY_HIGHLIGHTED_DAYS);
-            selectableDays = (Calendar[])savedInstanceState.getSerializable(KEY_SELECTABLE_DAYS);
-            highlightedDaysEnd = (Calendar[])savedInstanceState.getSerializable(KEY_HIGHLIGHTED_DAYS_END);
-            selectableDaysEnd = (Calendar[])savedInstanceState.getSerializable(KEY_SELECTABLE_DAYS_END);
+            mMinDay = savedInstanceState.getInt(KEY_MIN_DATE, EpochDay.MIN);
+            mMaxDay = savedInstanceState.getInt(KEY_MAX_DATE, EpochDay.MAX);
+            mMinDate = toCalendar(mMinDay, EpochDay.MIN);
+            mMaxDate = toCalendar(mMaxDay, EpochDay.MAX);
+            mMinDateEnd = toCalendar(savedInstanceState.getInt(KEY_MIN_DATE_END, EpochDay.MIN), EpochDay.MIN);
+            mMaxDateEnd = toCalendar(savedInstanceState.getInt(KEY_MAX_DATE_END, EpochDay.MAX), EpochDay.MAX);
+            highlightedDays = toDaySet(savedInstanceState.getByteArray(KEY_HIGHLIGHTED_DAYS));
+            selectableDays = toDaySet(savedInstanceState.getByteArray(KEY_SELECTABLE_DAYS));
+            highlightedDaysEnd = toDaySet(savedInstanceState.getByteArray(KEY_HIGHLIGHTED_DAYS_END));
+            selectableDaysEnd = toDaySet(savedInstanceState.getByteArray(KEY_SELECTABLE_DAYS_END));
             mThemeDark = savedInstanceState.getBoolean(KEY_THEME_DARK);
             mAccentColor = savedInstanceState.getInt(KEY_ACCENT);
             mVibrate = savedInstanceState.getBoolean(KEY_VIBRATE);
             mDismissOnPause = savedInstanceState.getBoolean(KEY_DISMISS);
+            mAutoHighlight = savedInstanceState.getBoolean(KEY_AUTO_HIGHLIGHT);
+            mSingleCalendarRange = savedInstanceState.getBoolean(KEY_SINGLE_CALENDAR_RANGE);
+            mSelection.setSelectingEnd(savedInstanceState.getBoolean(KEY_SELECTING_END));
+            mConfigGeneration++;
         }
 
-        mDayPickerView = new com.borax12.materialdaterangepicker.date.SimpleDayPickerView(activity, this);
+        mDayPickerView = new com.borax12.materialdaterangepicker.date.DayPickerRecyclerView(activity, this);
         mYearPickerView = new com.borax12.materialdaterangepicker.date.YearPickerView(activity, this);
-        mDayPickerViewEnd = new com.borax12.materialdaterangepicker.date.SimpleDayPickerView(activity, this);
-        mYearPickerViewEnd = new com.borax12.materialdaterangepicker.date.YearPickerView(activity, this);
-
+        // Both month lists draw from the same month views
+        mMonthViewPool = new RecyclerView.RecycledViewPool();
+        mDayPickerView.setRecycledViewPool(mMonthViewPool);
+        if (mMetricsRecorder != null) mMetricsRecorder.trackFlings(mDayPickerView);
+        // The pickers of the end tab are built when it is first shown, see createEndPickers()
+        mDayPickerViewEnd = null;
+        mYearPickerViewEnd = null;
 
         Resources res = getResources();
         mDayPickerDescription = res.getString(R.string.range_day_picker_description);
@@ -412,8 +508,6 @@ public class DatePickerDialog extends DialogFragment implements
         animation2.setDuration(ANIMATION_DURATION);
         mAnimator.setOutAnimation(animation2);
 
-        mAnimatorEnd.addView(mDayPickerViewEnd);
-        mAnimatorEnd.addView(mYearPickerViewEnd);
         mAnimatorEnd.setDateMillis(mCalendarEnd.getTimeInMillis());
         // TODO: Replace with animation decided upon by the design team.
         Animation animationEnd = new AlphaAnimation(0.0f, 1.0f);
@@ -466,8 +560,6 @@ public class DatePickerDialog extends DialogFragment implements
             cancelButton.setTextColor(mAccentColor);
             mYearPickerView.setAccentColor(mAccentColor);
             mDayPickerView.setAccentColor(mAccentColor);
-            mYearPickerViewEnd.setAccentColor(mAccentColor);
-            mDayPickerViewEnd.setAccentColor(mAccentColor);
         }
 
         updateDisplay(false);
@@ -481,44 +573,92 @@ public class DatePickerDialog extends DialogFragment implements
             }
         }
 
-        if (listPositionEnd != -1) {
-            if (currentViewEnd == MONTH_AND_DAY_VIEW) {
-                mDayPickerViewEnd.postSetSelection(listPositionEnd);
-            } else if (currentViewEnd == YEAR_VIEW) {
-                mYearPickerViewEnd.postSetSelectionFromTop(listPositionEnd, listPositionOffsetEnd);
-            }
-        }
+        mPendingListPositionEnd = listPositionEnd;
+        mPendingListPositionOffsetEnd = listPositionOffsetEnd;
+        mPendingCurrentViewEnd = currentViewEnd;
 
         mHapticFeedbackController = new HapticFeedbackController(activity);
 
         tabHost.setOnTabChangedListener(new TabHost.OnTabChangeListener() {
             @Override
             public void onTabChanged(String tabId) {
-                com.borax12.materialdaterangepicker.date.MonthAdapter.CalendarDay calendarDay;
                 if(tabId.equals("start")){
-                    calendarDay = new com.borax12.materialdaterangepicker.date.MonthAdapter.CalendarDay(mCalendar.getTimeInMillis());
-                    mDayPickerView.goTo(calendarDay,true,true,false);
+                    mDayPickerView.goTo(mSelection.getStart(),true,true,false);
                 }
                 else{
-                    calendarDay = new com.borax12.materialdaterangepicker.date.MonthAdapter.CalendarDay(mCalendarEnd.getTimeInMillis());
-                    mDayPickerViewEnd.goTo(calendarDay,true,true,false);
+                    createEndPickers();
+                    mDayPickerViewEnd.goTo(mSelection.getEnd(),true,true,false);
 
                 }
             }
         });
+
+        // Build the end pickers once the first frame is out and the main thread has nothing
+        // else to do, so that switching tabs doesn't have to
+        view.post(new Runnable() {
+            @Override
+            public void run() {
+                Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+                    @Override
+                    public boolean queueIdle() {
+                        if (!mSingleCalendarRange && mAnimatorEnd != null
+                                && mAnimatorEnd.getWindowToken() != null) {
+                            createEndPickers();
+                        }
+                        return false;
+                    }
+                });
+            }
+        });
+        if (mMetricsRecorder != null) mMetricsRecorder.reportFirstDraw(view, createViewStart);
+        PickerTrace.endSection();
         return view;
     }
 
+    /**
+     * Builds the day and year pickers of the end tab, unless they already exist.
+     */
+    private void createEndPickers() {
+        if (mDayPickerViewEnd != null) {
+            return;
+        }
+        final Activity activity = getActivity();
+        mDayPickerViewEnd = new com.borax12.materialdaterangepicker.date.DayPickerRecyclerView(activity, this);
+        mYearPickerViewEnd = new com.borax12.materialdaterangepicker.date.YearPickerView(activity, this);
+        mDayPickerViewEnd.setRecycledViewPool(mMonthViewPool);
+        if (mMetricsRecorder != null) mMetricsRecorder.trackFlings(mDayPickerViewEnd);
+        if (mAccentColor != -1) {
+            mYearPickerViewEnd.setAccentColor(mAccentColor);
+            mDayPickerViewEnd.setAccentColor(mAccentColor);
+        }
+
+        mAnimatorEnd.addView(mDayPickerViewEnd);
+        mAnimatorEnd.addView(mYearPickerViewEnd);
+        mAnimatorEnd.setDisplayedChild(mCurrentView == YEAR_VIEW ? YEAR_VIEW : MONTH_AND_DAY_VIEW);
+
+        if (mPendingListPositionEnd != -1) {
+            if (mPendingCurrentViewEnd == MONTH_AND_DAY_VIEW) {
+                mDayPickerViewEnd.postSetSelection(mPendingListPositionEnd);
+            } else if (mPendingCurrentViewEnd == YEAR_VIEW) {
+                mYearPickerViewEnd.postSetSelectionFromTop(mPendingListPositionEnd,
+                        mPendingListPositionOffsetEnd);
+            }
+            mPendingListPositionEnd = -1;
+        }
+    }
+
     @Override
     public void onResume() {
         super.onResume();
         mHapticFeedbackController.start();
+        if (mMetricsRecorder != null) mMetricsRecorder.startFrameMetrics(getDialog().getWindow());
     }
 
     @Override
     public void onPause() {
         super.onPause();
         mHapticFeedbackController.stop();
+        if (mMetricsRecorder != null) mMetricsRecorder.stopFrameMetrics(getDialog().getWindow());
         if(mDismissOnPause) dismiss();
     }
 
@@ -532,6 +672,7 @@ public class DatePickerDialog extends DialogFragment implements
     public void onDismiss(DialogInterface dialog) {
         super.onDismiss(dialog);
         if(mOnDismissListener != null) mOnDismissListener.onDismiss(dialog);
+        if (mMetricsRecorder != null) mMetricsRecorder.reportCacheStats();
     }
 
     /**
@@ -544,22 +685,246 @@ public class DatePickerDialog extends DialogFragment implements
     }
 
     /**
-     * If set to true, all days between {@link #highlightedDays} and {@link #highlightedDaysEnd} will be highlighted.
+     * Does the work of showing the dialog ahead of time: the dialog layout is inflated in the
+     * background where its views allow it, and the typefaces, month tables and date labels it
+     * draws are loaded on a background thread. Call it from the main thread once the dialog is
+     * configured, e.g. when the screen that shows it is created, and show the dialog from the
+     * same activity for the inflated layout to be used.
+     * @param context The activity the dialog will be shown from
+     */
+    @SuppressWarnings("unused")
+    public void prewarm(Context context) {
+        final Context appContext = context.getApplicationContext();
+        final int year = mCalendar.get(Calendar.YEAR);
+        final int minYear = mMinYear;
+        final int maxYear = mMaxYear;
+        AsyncTask.THREAD_POOL_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                TypefaceHelper.get(appContext, "Roboto-Medium");
+                // Extends the month tables to the year range if needed
+                MonthLayout.firstEpochDay(minYear, Calendar.JANUARY);
+                MonthLayout.firstEpochDay(maxYear, Calendar.DECEMBER);
+                DateLabelCache.prewarm(appContext, year, minYear, maxYear);
+            }
+        });
+        mPrewarmedLayout = new PrewarmedLayout(context, R.layout.range_date_picker_dialog);
+    }
+
+    /**
+     * Sets the callback receiving the latency and cache statistics of the picker. Must be called
+     * before the dialog is shown.
+     * @param metrics The callback, or null to stop collecting metrics
+     */
+    @SuppressWarnings("unused")
+    public void setPickerMetrics(PickerMetrics metrics) {
+        if (mMetricsRecorder != null) mMetricsRecorder.stopCacheStats();
+        mMetricsRecorder = metrics != null ? new PickerMetricsRecorder(metrics) : null;
+    }
+
+    @Override
+    public PickerMetricsRecorder getMetricsRecorder() {
+        return mMetricsRecorder;
+    }
+
+    /**
+     * Sets where the days that can be picked come from, for days that are too many or change too
+     * often for {@link #setSelectableDays(int[])}. The provider is asked for the months around
+     * the ones shown, one call at a time on a background thread of the dialog's own, so that
+     * slow providers don't hold up the other users of {@link AsyncTask}. The thread stops when
+     * the provider has been idle for a while. The provider isn't saved with the state of the
+     * dialog, so set it again when the dialog is recreated.
+     * @param provider The provider, or null to make every day available again
+     */
+    @SuppressWarnings("unused")
+    public void setDayAvailabilityProvider(DayAvailabilityProvider provider) {
+        setDayAvailabilityProvider(provider, provider != null ? getAvailabilityExecutor() : null);
+    }
+
+    /**
+     * Same as {@link #setDayAvailabilityProvider(DayAvailabilityProvider)}, asking the provider
+     * on the given executor.
+     */
+    @SuppressWarnings("unused")
+    public void setDayAvailabilityProvider(DayAvailabilityProvider provider, Executor executor) {
+        mAvailableDays = provider != null
+                ? new DayAvailabilityCache(provider, executor, mOnMonthLoadedListener) : null;
+
+        if (mDayPickerView != null) {
+            mDayPickerView.onChange();
+        }
+        if (mDayPickerViewEnd != null) {
+            mDayPickerViewEnd.onChange();
+        }
+    }
+
+    private Executor getAvailabilityExecutor() {
+        if (mAvailabilityExecutor == null) {
+            mAvailabilityExecutor = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                            runnable.run();
+                        }
+                    }, "DayAvailabilityProvider");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            mAvailabilityExecutor.allowCoreThreadTimeOut(true);
+        }
+        return mAvailabilityExecutor;
+    }
+
+    /**
+     * Asks the {@link DayAvailabilityProvider} again for the months on screen, and for any other
+     * month when it is shown next. The months keep showing the days they had until then.
+     */
+    @SuppressWarnings("unused")
+    public void notifyDayAvailabilityChanged() {
+        if (mAvailableDays == null) {
+            return;
+        }
+        mAvailableDays.invalidate();
+
+        if (mDayPickerView != null) {
+            mDayPickerView.onChange();
+        }
+        if (mDayPickerViewEnd != null) {
+            mDayPickerViewEnd.onChange();
+        }
+    }
+
+    @Override
+    public int getAvailableDays(int year, int month) {
+        return mAvailableDays != null
+                ? mAvailableDays.getAvailableDays(year, month) : DayAvailabilityCache.ALL_DAYS;
+    }
+
+    @Override
+    public void requestAvailableDays(int year, int month, int monthCount) {
+        if (mAvailableDays != null) {
+            mAvailableDays.request(year, month, monthCount);
+        }
+    }
+
+    @Override
+    public void cancelAvailableDaysOutside(int year, int month, int monthCount) {
+        if (mAvailableDays != null) {
+            mAvailableDays.cancelOutside(year, month, monthCount);
+        }
+    }
+
+    /**
+     * Sets what decorates the days of the calendars, e.g. with prices or dots. The decorator
+     * isn't saved with the state of the dialog, so set it again when the dialog is recreated.
+     * @param decorator The decorator, or null to stop decorating days
+     */
+    @SuppressWarnings("unused")
+    public void setDayDecorator(DayDecorator decorator) {
+        mDayDecorations = decorator != null ? new DayDecorationCache(decorator) : null;
+
+        if (mDayPickerView != null) {
+            mDayPickerView.onChange();
+        }
+        if (mDayPickerViewEnd != null) {
+            mDayPickerViewEnd.onChange();
+        }
+    }
+
+    /**
+     * Asks the {@link DayDecorator} again for the months on screen, and for any other month when
+     * it is shown next.
+     */
+    @SuppressWarnings("unused")
+    public void notifyDayDecorationsChanged() {
+        if (mDayDecorations == null) {
+            return;
+        }
+        mDayDecorations.invalidate();
+
+        if (mDayPickerView != null) {
+            mDayPickerView.onChange();
+        }
+        if (mDayPickerViewEnd != null) {
+            mDayPickerViewEnd.onChange();
+        }
+    }
+
+    @Override
+    public DayDecorations getDayDecorations(int year, int month) {
+        return mDayDecorations != null ? mDayDecorations.get(year, month) : null;
+    }
+
+    /**
+     * Tints the background of the days by an intensity, e.g. occupancy or number of events, in
+     * steps of the accent color from light to strong. The heatmap isn't saved with the state of
+     * the dialog, so set it again when the dialog is recreated.
+     * @param firstEpochDay The day of the first intensity, see {@link EpochDay}
+     * @param intensities The intensity of each day from the first one on. Days outside of the
+     * array, or with an intensity of 0 or less, aren't tinted. The array is used as is: call this
+     * again after changing its contents.
+     * @param maxIntensity The intensity drawn with the strongest tint, and the one higher
+     * intensities are drawn with
+     */
+    @SuppressWarnings("unused")
+    public void setHeatmap(int firstEpochDay, int[] intensities, int maxIntensity) {
+        mHeatmap = intensities != null
+                ? new DayHeatmap(firstEpochDay, intensities, maxIntensity) : null;
+
+        if (mDayPickerView != null) {
+            mDayPickerView.onChange();
+        }
+        if (mDayPickerViewEnd != null) {
+            mDayPickerViewEnd.onChange();
+        }
+    }
+
+    @Override
+    public DayHeatmap getHeatmap() {
+        return mHeatmap;
+    }
+
+    /**
+     * @return true if both ends of the range are picked in a single calendar
+     */
+    @SuppressWarnings("unused")
+    public boolean isSingleCalendarRange() {
+        return mSingleCalendarRange;
+    }
+
+    /**
+     * If set to true, the range is picked in a single calendar instead of one tab per date: a
+     * tap picks the start date and the next tap on or after it picks the end date, with the days
+     * in between drawn as a band. Must be called before the dialog is shown.
+     * @param singleCalendarRange Set true to pick the range in a single calendar
+     */
+    @SuppressWarnings("unused")
+    public void setSingleCalendarRange(boolean singleCalendarRange) {
+        mSingleCalendarRange = singleCalendarRange;
+        mSelection.setSelectingEnd(false);
+        mConfigGeneration++;
+    }
+
+    /**
+     * If set to true, all days between the selected start and end date will be highlighted.
      * This will reset manually inserted days to highlight using {@link #setHighlightedDays(Calendar[], Calendar[])}
      * @param autoHighlight Set true to turn on auto highlighting, false otherwise
      */
     @SuppressWarnings("unused")
     public void setAutoHighlight(boolean autoHighlight) {
         this.mAutoHighlight = autoHighlight;
-        if(autoHighlight) {
-            calculateHighlightedDays();
-        } else {
-            highlightedDays = null;
-            highlightedDaysEnd = null;
-        }
+        highlightedDays = null;
+        highlightedDaysEnd = null;
+        mConfigGeneration++;
     }
 
     private void setCurrentView(final int viewIndex) {
+        PickerTrace.beginSection("DatePickerDialog#setCurrentView");
         long millis = mCalendar.getTimeInMillis();
         long millisEnd = mCalendarEnd.getTimeInMillis();
 
@@ -604,7 +969,7 @@ public class DatePickerDialog extends DialogFragment implements
                     mDelayAnimation = false;
                 }
                 mYearPickerView.onDateChanged();
-                mYearPickerViewEnd.onDateChanged();
+                if (mYearPickerViewEnd != null) mYearPickerViewEnd.onDateChanged();
                 if (mCurrentView != viewIndex) {
                     mMonthAndDayView.setSelected(false);
                     mYearView.setSelected(true);
@@ -627,9 +992,11 @@ public class DatePickerDialog extends DialogFragment implements
                 Utils.tryAccessibilityAnnounce(mAnimatorEnd, mSelectYear);
                 break;
         }
+        PickerTrace.endSection();
     }
 
     private void updateDisplay(boolean announce) {
+        PickerTrace.beginSection("DatePickerDialog#updateDisplay");
         if (mDayOfWeekView != null) {
             mDayOfWeekView.setText(mCalendar.getDisplayName(Calendar.DAY_OF_WEEK, Calendar.LONG,
                     Locale.getDefault()).toUpperCase(Locale.getDefault()));
@@ -662,6 +1029,7 @@ public class DatePickerDialog extends DialogFragment implements
             Utils.tryAccessibilityAnnounce(mAnimator, fullDateText);
             Utils.tryAccessibilityAnnounce(mAnimatorEnd, fullDateTextEnd);
         }
+        PickerTrace.endSection();
     }
 
     /**
@@ -739,8 +1107,10 @@ public class DatePickerDialog extends DialogFragment implements
 
         mMinYear = startYear;
         mMaxYear = endYear;
-        if (mDayPickerView != null&&mDayPickerViewEnd!=null) {
+        if (mDayPickerView != null) {
             mDayPickerView.onChange();
+        }
+        if (mDayPickerViewEnd != null) {
             mDayPickerViewEnd.onChange();
         }
     }
@@ -753,21 +1123,26 @@ public class DatePickerDialog extends DialogFragment implements
     @SuppressWarnings("unused")
     public void setMinDate(Calendar calendar) {
         mMinDate = calendar;
-
-        if (mDayPickerView != null&&mDayPickerViewEnd!=null) {
-            mDayPickerView.onChange();
-            mDayPickerViewEnd.onChange();
-        }
+        mMinDay = calendar != null ? EpochDay.of(calendar) : EpochDay.MIN;
+        onDaysChanged();
     }
 
     /**
      * @return The minimal date supported by this DatePicker. Null if it has not been set.
      */
-    @Override
     public Calendar getMinDate() {
         return mMinDate;
     }
 
+    /**
+     * @return The minimal date supported by this DatePicker as an {@link EpochDay}.
+     * {@link EpochDay#MIN} if it has not been set.
+     */
+    @Override
+    public int getMinEpochDay() {
+        return mMinDay;
+    }
+
     /**
      * Sets the minimal date supported by this DatePicker. Dates after (but not including) the
      * specified date will be disallowed from being selected.
@@ -776,21 +1151,26 @@ public class DatePickerDialog extends DialogFragment implements
     @SuppressWarnings("unused")
     public void setMaxDate(Calendar calendar) {
         mMaxDate = calendar;
-
-        if (mDayPickerView != null&&mDayPickerViewEnd!=null) {
-            mDayPickerView.onChange();
-            mDayPickerViewEnd.onChange();
-        }
+        mMaxDay = calendar != null ? EpochDay.of(calendar) : EpochDay.MAX;
+        onDaysChanged();
     }
 
     /**
      * @return The maximal date supported by this DatePicker. Null if it has not been set.
      */
-    @Override
     public Calendar getMaxDate() {
         return mMaxDate;
     }
 
+    /**
+     * @return The maximal date supported by this DatePicker as an {@link EpochDay}.
+     * {@link EpochDay#MAX} if it has not been set.
+     */
+    @Override
+    public int getMaxEpochDay() {
+        return mMaxDay;
+    }
+
     /**
      * Sets an array of dates which should be highlighted when the picker is drawn
      * This will turn off auto highlighting.
@@ -798,23 +1178,99 @@ public class DatePickerDialog extends DialogFragment implements
      */
     @SuppressWarnings("unused")
     public void setHighlightedDays(Calendar[] highlightedDays,Calendar[] highlightedDaysEnd) {
+        setHighlightedDays(toDaySet(highlightedDays), toDaySet(highlightedDaysEnd));
+    }
+
+    /**
+     * Sets the dates which should be highlighted when the picker is drawn, given as
+     * {@link EpochDay}s. This will turn off auto highlighting.
+     * @param highlightedDays the epoch days to be highlighted, in any order
+     */
+    @SuppressWarnings("unused")
+    public void setHighlightedDays(int[] highlightedDays, int[] highlightedDaysEnd) {
+        setHighlightedDays(toDaySet(highlightedDays), toDaySet(highlightedDaysEnd));
+    }
+
+    /**
+     * Sets the dates which should be highlighted when the picker is drawn, given as instants in
+     * milliseconds since the epoch and mapped to days in the default time zone.
+     * This will turn off auto highlighting.
+     * @param highlightedDays the instants whose days should be highlighted, in any order
+     */
+    @SuppressWarnings("unused")
+    public void setHighlightedDays(long[] highlightedDays, long[] highlightedDaysEnd) {
+        setHighlightedDays(toDaySet(highlightedDays), toDaySet(highlightedDaysEnd));
+    }
+
+    /**
+     * Sets the dates which should be highlighted, e.g. as loaded by an {@link IcsDayLoader}.
+     * The sets aren't copied. This will turn off auto highlighting.
+     */
+    @SuppressWarnings("unused")
+    public void setHighlightedDays(EpochDaySet highlightedDays, EpochDaySet highlightedDaysEnd) {
         mAutoHighlight = false;
 
-        // Sort the array to optimize searching over it later on
-        Arrays.sort(highlightedDays);
-        Arrays.sort(highlightedDaysEnd);
         this.highlightedDays = highlightedDays;
         this.highlightedDaysEnd = highlightedDaysEnd;
+        onDaysChanged();
     }
 
     /**
-     * @return The list of dates, as Calendar Objects, which should be highlighted. null is no dates should be highlighted
+     * @return A new array of Calendar objects for the dates which should be highlighted. null is no dates should be highlighted
      */
-    @Override
     public Calendar[] getHighlightedDays() {
+        if (mAutoHighlight) {
+            // Only materialize the auto highlighted range when explicitly asked for it
+            final int start = getHighlightedRangeStart();
+            Calendar[] days = new Calendar[getHighlightedRangeEnd() - start + 1];
+            for (int i = 0; i < days.length; i++) {
+                days[i] = Calendar.getInstance();
+                EpochDay.toCalendar(start + i, days[i]);
+            }
+            return days;
+        }
+        return toCalendars(highlightedDays);
+    }
+
+    @Override
+    public EpochDaySet getHighlightedDaySet() {
         return highlightedDays;
     }
 
+    /**
+     * @return The first day highlighted by auto highlighting, or {@link EpochDay#MAX} if it is off
+     */
+    @Override
+    public int getHighlightedRangeStart() {
+        return mAutoHighlight ? mSelection.getFirstDay() : EpochDay.MAX;
+    }
+
+    /**
+     * @return The last day highlighted by auto highlighting, or {@link EpochDay#MIN} if it is off
+     */
+    @Override
+    public int getHighlightedRangeEnd() {
+        return mAutoHighlight ? mSelection.getLastDay() : EpochDay.MIN;
+    }
+
+    /**
+     * @return The selected start date if the range is picked in a single calendar, otherwise
+     * {@link EpochDay#MAX}
+     */
+    @Override
+    public int getSelectedRangeStart() {
+        return mSingleCalendarRange ? mSelection.getStart() : EpochDay.MAX;
+    }
+
+    /**
+     * @return The selected end date if the range is picked in a single calendar, otherwise
+     * {@link EpochDay#MIN}
+     */
+    @Override
+    public int getSelectedRangeEnd() {
+        return mSingleCalendarRange ? mSelection.getEnd() : EpochDay.MIN;
+    }
+
     /**
      * Set's a list of days which are the only valid selections.
      * Setting this value will take precedence over using setMinDate() and setMaxDate()
@@ -822,26 +1278,118 @@ public class DatePickerDialog extends DialogFragment implements
      */
     @SuppressWarnings("unused")
     public void setSelectableDays(Calendar[] selectableDays) {
-        // Sort the array to optimize searching over it later on
-        Arrays.sort(selectableDays);
-        this.selectableDays = selectableDays;
+        setSelectableDays(toDaySet(selectableDays));
+    }
+
+    /**
+     * Same as {@link #setSelectableDays(Calendar[])} for dates given as {@link EpochDay}s, in any order.
+     */
+    @SuppressWarnings("unused")
+    public void setSelectableDays(int[] selectableDays) {
+        setSelectableDays(toDaySet(selectableDays));
+    }
+
+    /**
+     * Same as {@link #setSelectableDays(Calendar[])} for dates given as instants in milliseconds
+     * since the epoch, mapped to days in the default time zone.
+     */
+    @SuppressWarnings("unused")
+    public void setSelectableDays(long[] selectableDays) {
+        setSelectableDays(toDaySet(selectableDays));
     }
 
     @SuppressWarnings("unused")
     public void setSelectableDaysEnd(Calendar[] selectableDaysEnd) {
-        // Sort the array to optimize searching over it later on
-        Arrays.sort(selectableDaysEnd);
-        this.selectableDaysEnd = selectableDaysEnd;
+        this.selectableDaysEnd = toDaySet(selectableDaysEnd);
+        onDaysChanged();
+    }
+
+    @SuppressWarnings("unused")
+    public void setSelectableDaysEnd(int[] selectableDaysEnd) {
+        this.selectableDaysEnd = toDaySet(selectableDaysEnd);
+        onDaysChanged();
+    }
+
+    @SuppressWarnings("unused")
+    public void setSelectableDaysEnd(long[] selectableDaysEnd) {
+        this.selectableDaysEnd = toDaySet(selectableDaysEnd);
+        onDaysChanged();
     }
 
     /**
-     * @return an Array of Calendar objects containing the list with selectable items. null if no restriction is set
+     * Same as {@link #setSelectableDays(Calendar[])} for a set of days, e.g. as loaded by an
+     * {@link IcsDayLoader}. The set isn't copied.
+     */
+    @SuppressWarnings("unused")
+    public void setSelectableDays(EpochDaySet selectableDays) {
+        this.selectableDays = selectableDays;
+        onDaysChanged();
+    }
+
+    /**
+     * Redraws the pickers, if they are shown, after the selectable, disabled or highlighted days
+     * changed. Both calendars read the same days.
+     */
+    private void onDaysChanged() {
+        mConfigGeneration++;
+
+        if (mDayPickerView != null) {
+            mDayPickerView.onChange();
+        }
+        if (mDayPickerViewEnd != null) {
+            mDayPickerViewEnd.onChange();
+        }
+    }
+
+    /**
+     * @return A new array of Calendar objects containing the list with selectable items. null if no restriction is set
      */
-    @Override
     public Calendar[] getSelectableDays() {
+        return toCalendars(selectableDays);
+    }
+
+    @Override
+    public EpochDaySet getSelectableDaySet() {
         return selectableDays;
     }
 
+    private static EpochDaySet toDaySet(int[] days) {
+        return days != null ? EpochDaySet.of(days) : null;
+    }
+
+    private static EpochDaySet toDaySet(Calendar[] days) {
+        return days != null ? EpochDaySet.of(days) : null;
+    }
+
+    private static EpochDaySet toDaySet(long[] days) {
+        return days != null ? EpochDaySet.of(days, TimeZone.getDefault()) : null;
+    }
+
+    private static Calendar[] toCalendars(EpochDaySet days) {
+        return days != null ? days.toCalendars() : null;
+    }
+
+    private static EpochDaySet toDaySet(byte[] days) {
+        return days != null ? EpochDaySet.fromByteArray(days) : null;
+    }
+
+    private static byte[] toByteArray(EpochDaySet days) {
+        return days != null ? days.toByteArray() : null;
+    }
+
+    private static int toEpochDay(Calendar calendar, int unset) {
+        return calendar != null ? EpochDay.of(calendar) : unset;
+    }
+
+    private static Calendar toCalendar(int epochDay, int unset) {
+        if (epochDay == unset) {
+            return null;
+        }
+        Calendar calendar = Calendar.getInstance();
+        EpochDay.toCalendar(epochDay, calendar);
+        return calendar;
+    }
+
 
     @SuppressWarnings("unused")
     public void setOnDateSetListener(OnDateSetListener listener) {
@@ -885,62 +1433,51 @@ public class DatePickerDialog extends DialogFragment implements
         adjustDayInMonthIfNeeded(mCalendar);
         adjustDayInMonthIfNeeded(mCalendarEnd);
 
-        if(tabHost.getCurrentTab()==0){
+        if (mSingleCalendarRange) {
+            // Start a new range in the chosen year
+            mCalendar.set(Calendar.YEAR, year);
+            mSelection.startRange(EpochDay.of(mCalendar));
+            EpochDay.toCalendar(mSelection.getEnd(), mCalendarEnd);
+        }else if(tabHost.getCurrentTab()==0){
             mCalendar.set(Calendar.YEAR, year);
+            mSelection.setStart(EpochDay.of(mCalendar));
         }else{
             mCalendarEnd.set(Calendar.YEAR, year);
+            mSelection.setEnd(EpochDay.of(mCalendarEnd));
         }
+        onSelectionChanged();
         updatePickers();
         setCurrentView(MONTH_AND_DAY_VIEW);
         updateDisplay(true);
     }
 
     @Override
-    public void onDayOfMonthSelected(int year, int month, int day) {
+    public void onDayOfMonthSelected(int epochDay) {
+        if (mMetricsRecorder != null && mAnimator != null) {
+            mMetricsRecorder.reportSelectionRendered(mAnimator, System.nanoTime());
+        }
 
-        if(tabHost.getCurrentTab()==0){
-            mCalendar.set(Calendar.YEAR, year);
-            mCalendar.set(Calendar.MONTH, month);
-            mCalendar.set(Calendar.DAY_OF_MONTH, day);
+        if (mSingleCalendarRange) {
+            mSelection.pick(epochDay);
+            EpochDay.toCalendar(mSelection.getStart(), mCalendar);
+            EpochDay.toCalendar(mSelection.getEnd(), mCalendarEnd);
+        }else if(tabHost.getCurrentTab()==0){
+            mSelection.setStart(epochDay);
+            EpochDay.toCalendar(epochDay, mCalendar);
         }
        else{
-            mCalendarEnd.set(Calendar.YEAR, year);
-            mCalendarEnd.set(Calendar.MONTH, month);
-            mCalendarEnd.set(Calendar.DAY_OF_MONTH, day);
-        }
-
-        if(mAutoHighlight) {
-            calculateHighlightedDays();
+            mSelection.setEnd(epochDay);
+            EpochDay.toCalendar(epochDay, mCalendarEnd);
         }
 
+        onSelectionChanged();
         updatePickers();
         updateDisplay(true);
     }
 
-    private void calculateHighlightedDays() {
-        int numDays = (int)Math.round(
-                (mCalendarEnd.getTimeInMillis() - mCalendar.getTimeInMillis()) / 86400000d);
-
-        // In case user chooses an end day before the start day.
-        int dir = 1;
-        if(numDays < 0) {
-            dir = -1;
-        }
-
-        numDays = Math.abs(numDays);
-
-        // +1 to account for the end day which should be highlighted as well
-        highlightedDays = new Calendar[numDays+1];
-
-        for (int i = 0; i < numDays; i++) {
-            highlightedDays[i] = new GregorianCalendar(
-                    mCalendar.get(Calendar.YEAR),
-                    mCalendar.get(Calendar.MONTH),
-                    mCalendar.get(Calendar.DAY_OF_MONTH));
-            highlightedDays[i].add(Calendar.DAY_OF_MONTH, i*dir);
-        }
-        highlightedDays[numDays] = mCalendarEnd;
-        highlightedDaysEnd = highlightedDays;
+    private void onSelectionChanged() {
+        // Auto highlighting and the single calendar range band follow the selected range
+        if (mAutoHighlight || mSingleCalendarRange) mConfigGeneration++;
     }
 
     private void updatePickers() {
@@ -948,7 +1485,6 @@ public class DatePickerDialog extends DialogFragment implements
     }
 
 
-    @Override
     public com.borax12.materialdaterangepicker.date.MonthAdapter.CalendarDay getSelectedDay() {
         if(tabHost.getCurrentTab()==0){
             return new com.borax12.materialdaterangepicker.date.MonthAdapter.CalendarDay(mCalendar);
@@ -958,18 +1494,34 @@ public class DatePickerDialog extends DialogFragment implements
 
     }
 
+    @Override
+    public int getSelectedEpochDay() {
+        if (mSingleCalendarRange) {
+            // The end of the range that was tapped last
+            return mSelection.getLastPicked();
+        }
+        return tabHost.getCurrentTab()==0 ? mSelection.getStart() : mSelection.getEnd();
+    }
+
     @Override
     public int getMinYear() {
-        if(selectableDays != null) return selectableDays[0].get(Calendar.YEAR);
+        if(selectableDays != null && !selectableDays.isEmpty()) return EpochDay.year(selectableDays.first());
         // Ensure no years can be selected outside of the given minimum date
-        return mMinDate != null && mMinDate.get(Calendar.YEAR) > mMinYear ? mMinDate.get(Calendar.YEAR) : mMinYear;
+        if (mMinDay == EpochDay.MIN) return mMinYear;
+        return Math.max(EpochDay.year(mMinDay), mMinYear);
     }
 
     @Override
     public int getMaxYear() {
-        if(selectableDays != null) return selectableDays[selectableDays.length-1].get(Calendar.YEAR);
+        if(selectableDays != null && !selectableDays.isEmpty()) return EpochDay.year(selectableDays.last());
         // Ensure no years can be selected outside of the given maximum date
-        return mMaxDate != null && mMaxDate.get(Calendar.YEAR) < mMaxYear ? mMaxDate.get(Calendar.YEAR) : mMaxYear;
+        if (mMaxDay == EpochDay.MAX) return mMaxYear;
+        return Math.min(EpochDay.year(mMaxDay), mMaxYear);
+    }
+
+    @Override
+    public int getConfigGeneration() {
+        return mConfigGeneration;
     }
 
     @Override
@@ -0,0 +1,273 @@
+package com.borax12.materialdaterangepicker.date;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.SparseIntArray;
+
+import com.borax12.materialdaterangepicker.CacheStats;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * Loads the days of a {@link DayAvailabilityProvider} a few months at a time on an executor, and
+ * keeps them as one bitmask per month for the most recently used months.
+ *
+ * Everything but the provider runs on the main thread. Months are keyed by
+ * {@code year * 12 + month}, and each cached month holds the generation it was loaded in next to
+ * its days, so that after {@link #invalidate()} the months on screen keep their old days until
+ * they have been loaded again instead of going back to the placeholder.
+ */
+final class DayAvailabilityCache {
+
+    private static final String TAG = "DayAvailabilityCache";
+
+    /** Every day of the month is available, bit (day - 1) stands for each day */
+    static final int ALL_DAYS = 0x7fffffff;
+    /** The days of the month haven't been loaded yet. Bit 31 never stands for a day. */
+    static final int PENDING = -1;
+
+    private static final int MONTHS_IN_YEAR = 12;
+    // About three years of months
+    private static final int MAX_MONTHS = 36;
+
+    /**
+     * Called on the main thread once the days of a month have been loaded.
+     */
+    interface OnMonthLoadedListener {
+        void onMonthLoaded(int year, int month);
+    }
+
+    private final DayAvailabilityProvider mProvider;
+    private final Executor mExecutor;
+    private final OnMonthLoadedListener mListener;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    // The cached months, one slot per month up to MAX_MONTHS, looked up by scanning the keys so
+    // that reads don't box anything. The least recently used slot is replaced when all are taken.
+    private final int[] mMonthKeys = new int[MAX_MONTHS];
+    private final int[] mMonthDays = new int[MAX_MONTHS];
+    private final int[] mMonthGenerations = new int[MAX_MONTHS];
+    // When each slot was last used, in ticks of mUseClock
+    private final long[] mMonthLastUsed = new long[MAX_MONTHS];
+    private int mMonthCount;
+    private long mUseClock;
+    // Months being loaded, mapped to the generation they are loaded for
+    private final SparseIntArray mLoading = new SparseIntArray();
+    // Loads that haven't delivered their days yet
+    private final ArrayList<LoadTask> mTasks = new ArrayList<>();
+    private int mGeneration;
+
+    DayAvailabilityCache(DayAvailabilityProvider provider, Executor executor,
+            OnMonthLoadedListener listener) {
+        mProvider = provider;
+        mExecutor = executor;
+        mListener = listener;
+    }
+
+    /**
+     * @param month The month (0-11)
+     * @return The available days of the month, bit (day - 1) for each day, or {@link #PENDING}
+     * if they haven't been loaded yet
+     */
+    int getAvailableDays(int year, int month) {
+        final int slot = findMonth(year * MONTHS_IN_YEAR + month);
+        if (slot < 0) {
+            CacheStats.DAY_AVAILABILITY.miss();
+            return PENDING;
+        }
+        CacheStats.DAY_AVAILABILITY.hit();
+        mMonthLastUsed[slot] = ++mUseClock;
+        return mMonthDays[slot];
+    }
+
+    /**
+     * Loads the given months that aren't cached for the current generation or already being
+     * loaded, in a single call to the provider covering them all.
+     *
+     * @param month The first month (0-11)
+     * @param monthCount How many consecutive months to load, from the first one on
+     */
+    void request(int year, int month, int monthCount) {
+        final int firstKey = year * MONTHS_IN_YEAR + month;
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        for (int key = firstKey; key < firstKey + monthCount; key++) {
+            if (isCurrent(key)) {
+                continue;
+            }
+            first = Math.min(first, key);
+            last = Math.max(last, key);
+        }
+        if (first > last) {
+            return;
+        }
+        for (int key = first; key <= last; key++) {
+            mLoading.put(key, mGeneration);
+        }
+        final LoadTask task = new LoadTask(first, last, mGeneration);
+        mTasks.add(task);
+        mExecutor.execute(task);
+    }
+
+    /**
+     * Cancels the loads that haven't started yet and don't cover any of the given months, e.g.
+     * for months the list has been scrolled past. Loads already running are left to finish.
+     *
+     * @param month The first month to keep (0-11)
+     * @param monthCount How many consecutive months to keep, from the first one on
+     */
+    void cancelOutside(int year, int month, int monthCount) {
+        final int firstKey = year * MONTHS_IN_YEAR + month;
+        final int lastKey = firstKey + monthCount - 1;
+        for (int i = mTasks.size() - 1; i >= 0; i--) {
+            final LoadTask task = mTasks.get(i);
+            if (task.mLastKey < firstKey || task.mFirstKey > lastKey) {
+                task.mCancelled = true;
+                mTasks.remove(i);
+                clearLoading(task.mFirstKey, task.mLastKey, task.mRequestGeneration);
+            }
+        }
+    }
+
+    /**
+     * Marks every cached month as out of date. They are still returned by
+     * {@link #getAvailableDays(int, int)} until they are loaded again.
+     */
+    void invalidate() {
+        mGeneration++;
+        mLoading.clear();
+        // Their days would be dropped anyway
+        for (LoadTask task : mTasks) {
+            task.mCancelled = true;
+        }
+        mTasks.clear();
+    }
+
+    private boolean isCurrent(int key) {
+        final int slot = findMonth(key);
+        if (slot >= 0 && mMonthGenerations[slot] == mGeneration) {
+            return true;
+        }
+        return mLoading.get(key, mGeneration - 1) == mGeneration;
+    }
+
+    private void onLoaded(LoadTask task, int[] days) {
+        mTasks.remove(task);
+        if (task.mRequestGeneration != mGeneration) {
+            // Invalidated while loading, a newer request covers these months
+            return;
+        }
+        for (int i = 0; i < days.length; i++) {
+            final int key = task.mFirstKey + i;
+            mLoading.delete(key);
+            putMonth(key, days[i]);
+            mListener.onMonthLoaded(key / MONTHS_IN_YEAR,
+                    key % MONTHS_IN_YEAR);
+        }
+    }
+
+    /**
+     * @return The slot of the cached month, or -1 if it isn't cached
+     */
+    private int findMonth(int key) {
+        for (int slot = 0; slot < mMonthCount; slot++) {
+            if (mMonthKeys[slot] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void putMonth(int key, int days) {
+        int slot = findMonth(key);
+        if (slot < 0) {
+            if (mMonthCount < MAX_MONTHS) {
+                slot = mMonthCount++;
+            } else {
+                slot = 0;
+                for (int i = 1; i < MAX_MONTHS; i++) {
+                    if (mMonthLastUsed[i] < mMonthLastUsed[slot]) slot = i;
+                }
+            }
+            mMonthKeys[slot] = key;
+        }
+        mMonthDays[slot] = days;
+        mMonthGenerations[slot] = mGeneration;
+        mMonthLastUsed[slot] = ++mUseClock;
+    }
+
+    private void onFailed(LoadTask task) {
+        mTasks.remove(task);
+        // Let the next bind of these months try again
+        clearLoading(task.mFirstKey, task.mLastKey, task.mRequestGeneration);
+    }
+
+    private void clearLoading(int firstKey, int lastKey, int generation) {
+        if (generation != mGeneration) {
+            return;
+        }
+        for (int key = firstKey; key <= lastKey; key++) {
+            mLoading.delete(key);
+        }
+    }
+
+    private final class LoadTask implements Runnable {
+        private final int mFirstKey;
+        private final int mLastKey;
+        private final int mRequestGeneration;
+        private volatile boolean mCancelled;
+
+        LoadTask(int firstKey, int lastKey, int generation) {
+            mFirstKey = firstKey;
+            mLastKey = lastKey;
+            mRequestGeneration = generation;
+        }
+
+        @Override
+        public void run() {
+            if (mCancelled) {
+                return;
+            }
+            final int firstEpochDay = MonthLayout.firstEpochDay(mFirstKey / MONTHS_IN_YEAR,
+                    mFirstKey % MONTHS_IN_YEAR);
+            final int lastYear = mLastKey / MONTHS_IN_YEAR;
+            final int lastMonth = mLastKey % MONTHS_IN_YEAR;
+            final int lastEpochDay = MonthLayout.firstEpochDay(lastYear, lastMonth)
+                    + MonthLayout.daysInMonth(lastYear, lastMonth) - 1;
+            final EpochDaySet available;
+            try {
+                available = mProvider.getAvailableDays(firstEpochDay, lastEpochDay);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Failed to load the available days", e);
+                mHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onFailed(LoadTask.this);
+                    }
+                });
+                return;
+            }
+
+            final int[] days = new int[mLastKey - mFirstKey + 1];
+            int epochDay = firstEpochDay;
+            for (int i = 0; i < days.length; i++) {
+                final int key = mFirstKey + i;
+                final int daysInMonth = MonthLayout.daysInMonth(
+                        key / MONTHS_IN_YEAR, key % MONTHS_IN_YEAR);
+                int mask = 0;
+                for (int day = 0; day < daysInMonth; day++, epochDay++) {
+                    if (available != null && available.contains(epochDay)) mask |= 1 << day;
+                }
+                days[i] = mask;
+            }
+            mHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    onLoaded(LoadTask.this, days);
+                }
+            });
+        }
+    }
+}
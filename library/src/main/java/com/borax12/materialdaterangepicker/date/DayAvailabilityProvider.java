@@ -0,0 +1,29 @@
+package com.borax12.materialdaterangepicker.date;
+
+/**
+ * Tells the date picker which days can be picked, for pickers whose selectable days are too many
+ * or change too often to be passed to
+ * {@link DatePickerDialog#setSelectableDays(int[])}, e.g. when they come from a database.
+ *
+ * The picker only asks for the months around the ones being shown, a few months at a time, and
+ * keeps the answers for the most recently shown months. The days of a month are drawn as disabled
+ * until its answer arrives. Call {@link DatePickerDialog#notifyDayAvailabilityChanged()} when the
+ * days change to have the months on screen asked for again.
+ *
+ * Days that the provider reports as available are still subject to the minimum and maximum
+ * dates and the selectable days set on the dialog.
+ *
+ * @see DatePickerDialog#setDayAvailabilityProvider(DayAvailabilityProvider)
+ */
+public interface DayAvailabilityProvider {
+
+    /**
+     * Called on a background thread, one call at a time unless the picker was given an executor
+     * that runs tasks concurrently.
+     *
+     * @param firstEpochDay The first day asked for, the first day of a month, see {@link EpochDay}
+     * @param lastEpochDay The last day asked for, inclusive, the last day of a month
+     * @return The days between the two that can be picked. Days outside of them are ignored.
+     */
+    EpochDaySet getAvailableDays(int firstEpochDay, int lastEpochDay);
+}
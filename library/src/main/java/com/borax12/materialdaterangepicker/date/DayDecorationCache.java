@@ -0,0 +1,63 @@
+package com.borax12.materialdaterangepicker.date;
+
+import android.util.LruCache;
+
+import com.borax12.materialdaterangepicker.CacheStats;
+import com.borax12.materialdaterangepicker.PickerTrace;
+
+/**
+ * Keeps the {@link DayDecorations} of the most recently shown months, asking the
+ * {@link DayDecorator} for a month the first time it is needed. Used on the main thread only.
+ */
+final class DayDecorationCache {
+
+    private static final int MONTHS_IN_YEAR = 12;
+    // About three years of months
+    private static final int MAX_MONTHS = 36;
+
+    private final DayDecorator mDecorator;
+    // Months are keyed by year * 12 + month
+    private final LruCache<Integer, DayDecorations> mMonths = new LruCache<>(MAX_MONTHS);
+    private DayDecorations.LabelPool mPool = new DayDecorations.LabelPool();
+
+    DayDecorationCache(DayDecorator decorator) {
+        mDecorator = decorator;
+    }
+
+    /**
+     * @param month The month (0-11)
+     * @return The decorations of the days of the month, or null if none of them is decorated
+     */
+    DayDecorations get(int year, int month) {
+        final int key = year * MONTHS_IN_YEAR + month;
+        DayDecorations decorations = mMonths.get(key);
+        if (decorations == null) {
+            CacheStats.DAY_DECORATIONS.miss();
+            if (mPool.isFull()) {
+                // The months already decorated keep referring to the old pool
+                mPool = new DayDecorations.LabelPool();
+            }
+            decorations = new DayDecorations(mPool);
+            PickerTrace.beginSection("DayDecorator#decorateMonth");
+            try {
+                mDecorator.decorateMonth(year, month, MonthLayout.firstEpochDay(year, month),
+                        decorations);
+            } finally {
+                PickerTrace.endSection();
+            }
+            mMonths.put(key, decorations);
+        } else {
+            CacheStats.DAY_DECORATIONS.hit();
+        }
+        return decorations.isEmpty() ? null : decorations;
+    }
+
+    /**
+     * Drops every month, so that they are decorated again when next needed.
+     */
+    void invalidate() {
+        mMonths.evictAll();
+        // Views still drawing the dropped months keep their labels
+        mPool = new DayDecorations.LabelPool();
+    }
+}
@@ -0,0 +1,170 @@
+package com.borax12.materialdaterangepicker.date;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The decorations of the days of one month, set by a {@link DayDecorator}.
+ *
+ * Each day has an entry in a few arrays: its color, its flags and the index of its label in a
+ * pool of strings shared by the months of a picker, so that a label repeated over many days,
+ * such as a price, is only kept once.
+ */
+public final class DayDecorations {
+
+    private static final int MAX_DAYS = 31;
+    private static final short NO_LABEL = -1;
+
+    private static final byte FLAG_DOT = 1;
+    private static final byte FLAG_STRIKE_THROUGH = 1 << 1;
+    private static final byte FLAG_COLOR = 1 << 2;
+    private static final byte FLAG_LABEL = 1 << 3;
+
+    private final LabelPool mPool;
+    // Indexed by day of the month - 1
+    private final int[] mColors = new int[MAX_DAYS];
+    private final short[] mLabels = new short[MAX_DAYS];
+    private final byte[] mFlags = new byte[MAX_DAYS];
+    private boolean mEmpty = true;
+
+    DayDecorations(LabelPool pool) {
+        mPool = pool;
+        Arrays.fill(mLabels, NO_LABEL);
+    }
+
+    /**
+     * Draws a label under the number of the day, in the color of the day.
+     *
+     * @param day The day of the month (1-31)
+     * @param label The label, kept short to fit the width of a day
+     * @return This object, to chain calls
+     */
+    public DayDecorations setLabel(int day, String label) {
+        final int index = checkDay(day);
+        if (label == null) {
+            mLabels[index] = NO_LABEL;
+            mFlags[index] &= ~FLAG_LABEL;
+        } else {
+            mLabels[index] = mPool.intern(label);
+            addFlags(index, FLAG_LABEL);
+        }
+        return this;
+    }
+
+    /**
+     * Draws a dot next to the number of the day, in the color of the day.
+     *
+     * @param day The day of the month (1-31)
+     * @return This object, to chain calls
+     */
+    public DayDecorations setDot(int day) {
+        addFlags(checkDay(day), FLAG_DOT);
+        return this;
+    }
+
+    /**
+     * Strikes the number of the day through, in the color of the day.
+     *
+     * @param day The day of the month (1-31)
+     * @return This object, to chain calls
+     */
+    public DayDecorations setStrikeThrough(int day) {
+        addFlags(checkDay(day), FLAG_STRIKE_THROUGH);
+        return this;
+    }
+
+    /**
+     * Sets the color of the decorations of the day, which otherwise have the color of the day
+     * numbers.
+     *
+     * @param day The day of the month (1-31)
+     * @param color The color as an ARGB int
+     * @return This object, to chain calls
+     */
+    public DayDecorations setColor(int day, int color) {
+        final int index = checkDay(day);
+        mColors[index] = color;
+        addFlags(index, FLAG_COLOR);
+        return this;
+    }
+
+    boolean isEmpty() {
+        return mEmpty;
+    }
+
+    /**
+     * @return true if the day has a label, a dot or a strike through
+     */
+    boolean isDecorated(int day) {
+        return (mFlags[day - 1] & (FLAG_LABEL | FLAG_DOT | FLAG_STRIKE_THROUGH)) != 0;
+    }
+
+    /**
+     * @return The label of the day, or null if it has none
+     */
+    String getLabel(int day) {
+        final short label = mLabels[day - 1];
+        return label != NO_LABEL ? mPool.get(label) : null;
+    }
+
+    boolean hasDot(int day) {
+        return (mFlags[day - 1] & FLAG_DOT) != 0;
+    }
+
+    boolean isStruckThrough(int day) {
+        return (mFlags[day - 1] & FLAG_STRIKE_THROUGH) != 0;
+    }
+
+    /**
+     * @return The color set for the day, or the given default if none was set
+     */
+    int getColor(int day, int defaultColor) {
+        return (mFlags[day - 1] & FLAG_COLOR) != 0 ? mColors[day - 1] : defaultColor;
+    }
+
+    private void addFlags(int index, byte flags) {
+        mFlags[index] |= flags;
+        mEmpty = false;
+    }
+
+    private static int checkDay(int day) {
+        if (day < 1 || day > MAX_DAYS) {
+            throw new IllegalArgumentException("Day of the month out of range: " + day);
+        }
+        return day - 1;
+    }
+
+    /**
+     * The labels of the months of a picker, each kept once and referred to by index.
+     */
+    static final class LabelPool {
+        // Room left for the labels of one more month, see isFull()
+        private static final int CAPACITY = Short.MAX_VALUE - MAX_DAYS;
+
+        private final HashMap<String, Short> mIndexes = new HashMap<>();
+        private final ArrayList<String> mLabels = new ArrayList<>();
+
+        short intern(String label) {
+            Short index = mIndexes.get(label);
+            if (index == null) {
+                index = (short) mLabels.size();
+                mLabels.add(label);
+                mIndexes.put(label, index);
+            }
+            return index;
+        }
+
+        String get(short index) {
+            return mLabels.get(index);
+        }
+
+        /**
+         * @return true if the labels of another month might not fit, and a new pool should be
+         * used for the months decorated from now on
+         */
+        boolean isFull() {
+            return mLabels.size() > CAPACITY;
+        }
+    }
+}
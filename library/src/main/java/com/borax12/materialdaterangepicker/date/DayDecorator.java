@@ -0,0 +1,26 @@
+package com.borax12.materialdaterangepicker.date;
+
+/**
+ * Decorates the days of the date picker with a label under the day number, e.g. a price, a dot
+ * or a line striking the number through, e.g. for sold out days.
+ *
+ * The decorator is asked for a whole month at once, the first time the month is shown, and the
+ * answer is kept for the most recently shown months. Call
+ * {@link DatePickerDialog#notifyDayDecorationsChanged()} when the decorations change.
+ *
+ * @see DatePickerDialog#setDayDecorator(DayDecorator)
+ */
+public interface DayDecorator {
+
+    /**
+     * Called on the main thread.
+     *
+     * @param year The year of the month
+     * @param month The month (0-11)
+     * @param firstEpochDay The first day of the month, see {@link EpochDay}. Day {@code d} of the
+     *            month is {@code firstEpochDay + d - 1}.
+     * @param decorations Where to set the decorations of the days of the month. Days that are
+     *            left alone aren't decorated.
+     */
+    void decorateMonth(int year, int month, int firstEpochDay, DayDecorations decorations);
+}
@@ -0,0 +1,52 @@
+package com.borax12.materialdaterangepicker.date;
+
+/**
+ * Intensities of consecutive days, e.g. occupancy or number of events, that
+ * {@link SimpleMonthView} draws as tints of the background of the days.
+ *
+ * Each intensity is mapped to one of {@link #LEVELS} steps of a color ramp, so drawing a day is
+ * an array read and a division.
+ *
+ * @see DatePickerDialog#setHeatmap(int, int[], int)
+ */
+public final class DayHeatmap {
+
+    /** The number of steps of the color ramp */
+    public static final int LEVELS = 8;
+    /** Returned by {@link #levelOf(int)} for days that aren't tinted */
+    public static final int NO_LEVEL = -1;
+
+    private final int mFirstEpochDay;
+    private final int[] mIntensities;
+    private final int mMaxIntensity;
+
+    /**
+     * @param firstEpochDay The day of the first intensity, see {@link EpochDay}
+     * @param intensities The intensity of each day from the first one on. Not copied.
+     * @param maxIntensity The intensity drawn with the strongest tint, must be positive
+     */
+    DayHeatmap(int firstEpochDay, int[] intensities, int maxIntensity) {
+        if (maxIntensity <= 0) {
+            throw new IllegalArgumentException("maxIntensity must be positive: " + maxIntensity);
+        }
+        mFirstEpochDay = firstEpochDay;
+        mIntensities = intensities;
+        mMaxIntensity = maxIntensity;
+    }
+
+    /**
+     * @return The step of the color ramp the day is drawn with, from 0 to {@link #LEVELS} - 1,
+     * or {@link #NO_LEVEL} if the day has no intensity above 0
+     */
+    public int levelOf(int epochDay) {
+        final int index = epochDay - mFirstEpochDay;
+        if (index < 0 || index >= mIntensities.length) {
+            return NO_LEVEL;
+        }
+        final int intensity = mIntensities[index];
+        if (intensity <= 0) {
+            return NO_LEVEL;
+        }
+        return (int) ((long) Math.min(intensity, mMaxIntensity) * (LEVELS - 1) / mMaxIntensity);
+    }
+}
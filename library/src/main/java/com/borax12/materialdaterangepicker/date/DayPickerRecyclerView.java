@@ -0,0 +1,320 @@
+package com.borax12.materialdaterangepicker.date;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.accessibility.AccessibilityNodeInfo;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.LinearSmoothScroller;
+import androidx.recyclerview.widget.LinearSnapHelper;
+import androidx.recyclerview.widget.OrientationHelper;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.borax12.materialdaterangepicker.date.DatePickerDialog.OnDateChangedListener;
+
+/**
+ * Displays a list of months in a calendar format with selectable days, like
+ * {@link DayPickerView} but built on a {@link RecyclerView}.
+ *
+ * Months are prefetched during idle frame time while scrolling, and the data of the months the
+ * list is scrolling towards is loaded ahead of them by a {@link MonthPrefetcher}. Scrolling
+ * settles on the top of a month, and pickers can share their month views through
+ * {@link #setRecycledViewPool(RecyclerView.RecycledViewPool)}.
+ */
+public class DayPickerRecyclerView extends RecyclerView implements OnDateChangedListener {
+
+    // How many months off screen are kept bound, so that scrolling back doesn't rebind them
+    protected static final int MONTH_VIEW_CACHE_SIZE = 2;
+
+    // highlighted time
+    protected MonthAdapter.CalendarDay mSelectedDay = new MonthAdapter.CalendarDay();
+    protected MonthRecyclerAdapter mAdapter;
+
+    protected MonthAdapter.CalendarDay mTempDay = new MonthAdapter.CalendarDay();
+
+    private LinearLayoutManager mLayoutManager;
+    private DatePickerController mController;
+    private MonthPrefetcher mPrefetcher;
+    private MonthListHelper mHelper;
+
+    public DayPickerRecyclerView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        init(context);
+    }
+
+    public DayPickerRecyclerView(Context context, DatePickerController controller) {
+        super(context);
+        init(context);
+        setController(controller);
+    }
+
+    public void setController(DatePickerController controller) {
+        mController = controller;
+        mController.registerOnDateChangedListener(this);
+        mPrefetcher.setController(controller);
+        mHelper.setController(controller);
+        refreshAdapter();
+        onDateChanged();
+    }
+
+    public void init(Context context) {
+        setLayoutParams(new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT));
+        mLayoutManager = new LinearLayoutManager(context);
+        mLayoutManager.setItemPrefetchEnabled(true);
+        setLayoutManager(mLayoutManager);
+        setHasFixedSize(true);
+        setItemViewCacheSize(MONTH_VIEW_CACHE_SIZE);
+        setVerticalScrollBarEnabled(false);
+        setFadingEdgeLength(0);
+        new MonthSnapHelper().attachToRecyclerView(this);
+
+        mPrefetcher = new MonthPrefetcher(context);
+        addOnScrollListener(new OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                final View child = getChildAt(0);
+                if (child == null) {
+                    return;
+                }
+                mPrefetcher.onScrolled(mLayoutManager.findFirstVisibleItemPosition(),
+                        mLayoutManager.findLastVisibleItemPosition(),
+                        mLayoutManager.getItemCount(), dy, child.getHeight());
+            }
+        });
+        mHelper = new MonthListHelper(this, mSelectedDay, mTempDay) {
+            @Override
+            int getFirstVisiblePosition() {
+                return mLayoutManager.findFirstVisibleItemPosition();
+            }
+
+            @Override
+            int getLastVisiblePosition() {
+                return mLayoutManager.findLastVisibleItemPosition();
+            }
+
+            @Override
+            boolean isFirstVisibleMonthComplete() {
+                return mLayoutManager.findFirstCompletelyVisibleItemPosition()
+                        == mLayoutManager.findFirstVisibleItemPosition();
+            }
+
+            @Override
+            int getPosition(int year, int month) {
+                return mAdapter.getPosition(year, month);
+            }
+
+            @Override
+            void setSelectedDayQuietly(MonthAdapter.CalendarDay day) {
+                mAdapter.setSelectedDayQuietly(day);
+            }
+
+            @Override
+            boolean goTo(MonthAdapter.CalendarDay day, boolean animate, boolean setSelected,
+                    boolean forceScroll) {
+                return DayPickerRecyclerView.this.goTo(day, animate, setSelected, forceScroll);
+            }
+        };
+    }
+
+    public void onChange() {
+        refreshAdapter();
+    }
+
+    /**
+     * Creates a new adapter if necessary and sets up its parameters. Override
+     * this method to provide a custom adapter.
+     */
+    protected void refreshAdapter() {
+        if (mAdapter == null) {
+            mAdapter = createMonthAdapter(mController);
+            setAdapter(mAdapter);
+        } else {
+            mAdapter.setSelectedDay(mSelectedDay);
+        }
+    }
+
+    public MonthRecyclerAdapter createMonthAdapter(DatePickerController controller) {
+        return new MonthRecyclerAdapter(controller);
+    }
+
+    /**
+     * This moves to the specified time in the view. If the time is not already
+     * in range it will move the list so that the first of the month containing
+     * the time is at the top of the view. If the new time is already in view
+     * the list will not be scrolled unless forceScroll is true. This time may
+     * optionally be highlighted as selected as well.
+     *
+     * @param day The day to move to
+     * @param animate Whether to scroll to the given time or just redraw at the
+     *            new location
+     * @param setSelected Whether to set the given time as selected
+     * @param forceScroll Whether to recenter even if the time is already
+     *            visible
+     * @return Whether or not the view animated to the new location
+     */
+    public boolean goTo(MonthAdapter.CalendarDay day, boolean animate, boolean setSelected, boolean forceScroll) {
+
+        // Set the selected day
+        if (setSelected) {
+            mSelectedDay.set(day);
+            mAdapter.setSelectedDay(mSelectedDay);
+        }
+
+        final int position = mAdapter.getPosition(day.year, day.month);
+
+        // Check if the selected day is now outside of our visible range
+        // and if so scroll to the month that contains it
+        if (position != mLayoutManager.findFirstCompletelyVisibleItemPosition() || forceScroll) {
+            if (animate) {
+                smoothScrollToMonth(position);
+                return true;
+            } else {
+                postSetSelection(position);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Same as {@link #goTo(MonthAdapter.CalendarDay, boolean, boolean, boolean)} for a day
+     * given as an {@link EpochDay}.
+     */
+    public boolean goTo(int epochDay, boolean animate, boolean setSelected, boolean forceScroll) {
+        mTempDay.setEpochDay(epochDay);
+        return goTo(mTempDay, animate, setSelected, forceScroll);
+    }
+
+    public void postSetSelection(final int position) {
+        clearFocus();
+        post(new Runnable() {
+
+            @Override
+            public void run() {
+                mLayoutManager.scrollToPositionWithOffset(position, 0);
+            }
+        });
+    }
+
+    private void smoothScrollToMonth(int position) {
+        LinearSmoothScroller scroller = new LinearSmoothScroller(getContext()) {
+            @Override
+            protected int getVerticalSnapPreference() {
+                return SNAP_TO_START;
+            }
+        };
+        scroller.setTargetPosition(position);
+        mLayoutManager.startSmoothScroll(scroller);
+    }
+
+    public void setAccentColor(int accentColor) {
+        mAdapter.setAccentColor(accentColor);
+    }
+
+    /**
+     * Gets the position of the view that is most prominently displayed within the list view.
+     */
+    public int getMostVisiblePosition() {
+        final int height = getHeight();
+
+        int maxDisplayedHeight = 0;
+        int mostVisiblePosition = mLayoutManager.findFirstVisibleItemPosition();
+        final int childCount = getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            final View child = getChildAt(i);
+            int displayedHeight = Math.min(child.getBottom(), height) - Math.max(0, child.getTop());
+            if (displayedHeight > maxDisplayedHeight) {
+                mostVisiblePosition = getChildAdapterPosition(child);
+                maxDisplayedHeight = displayedHeight;
+            }
+        }
+        return mostVisiblePosition;
+    }
+
+    @Override
+    public void onDateChanged() {
+        mHelper.onDateChanged();
+    }
+
+    @Override
+    protected void onVisibilityChanged(@NonNull View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        // Can be called from the View constructor, before init()
+        if (mHelper != null) {
+            mHelper.onVisibilityChanged();
+        }
+    }
+
+    /**
+     * Redraws the given month if it is on screen, after its available days have been loaded.
+     *
+     * @param month The month (0-11)
+     */
+    void refreshMonth(int year, int month) {
+        mHelper.refreshMonth(year, month);
+    }
+
+    /**
+     * Necessary for accessibility, to ensure we support "scrolling" forward and backward
+     * in the month list.
+     */
+    @Override
+    public void onInitializeAccessibilityNodeInfo(@NonNull AccessibilityNodeInfo info) {
+        super.onInitializeAccessibilityNodeInfo(info);
+        MonthListHelper.addScrollActions(info);
+    }
+
+    /**
+     * When scroll forward/backward events are received, announce the newly scrolled-to month.
+     */
+    @Override
+    public boolean performAccessibilityAction(int action, Bundle arguments) {
+        return mHelper.performScrollAction(action)
+                || super.performAccessibilityAction(action, arguments);
+    }
+
+    /**
+     * Settles scrolling on the top of a month, picking whichever of the first two visible
+     * months shows more of itself, as the {@link DayPickerView} does once a scroll ends.
+     */
+    private static class MonthSnapHelper extends LinearSnapHelper {
+        private OrientationHelper mHelper;
+        private LayoutManager mHelperLayoutManager;
+
+        @Override
+        public int[] calculateDistanceToFinalSnap(@NonNull LayoutManager layoutManager,
+                @NonNull View targetView) {
+            final OrientationHelper helper = getHelper(layoutManager);
+            return new int[] {0, helper.getDecoratedStart(targetView) - helper.getStartAfterPadding()};
+        }
+
+        @Override
+        public View findSnapView(LayoutManager layoutManager) {
+            if (!(layoutManager instanceof LinearLayoutManager)) {
+                return super.findSnapView(layoutManager);
+            }
+            final LinearLayoutManager manager = (LinearLayoutManager) layoutManager;
+            final int first = manager.findFirstVisibleItemPosition();
+            // Leave the end of the list alone, as it can't scroll any further
+            if (first == NO_POSITION
+                    || manager.findLastCompletelyVisibleItemPosition() == manager.getItemCount() - 1) {
+                return null;
+            }
+            final View child = manager.findViewByPosition(first);
+            if (getHelper(manager).getDecoratedEnd(child) > getHelper(manager).getTotalSpace() / 2) {
+                return child;
+            }
+            return manager.findViewByPosition(first + 1);
+        }
+
+        private OrientationHelper getHelper(LayoutManager layoutManager) {
+            if (mHelperLayoutManager != layoutManager) {
+                mHelper = OrientationHelper.createVerticalHelper(layoutManager);
+                mHelperLayoutManager = layoutManager;
+            }
+            return mHelper;
+        }
+    }
+}
@@ -16,7 +16,6 @@
 
 package com.borax12.materialdaterangepicker.date;
 
-import android.annotation.SuppressLint;
 import android.content.Context;
 import android.os.Build;
 import android.os.Bundle;
@@ -33,13 +32,8 @@ import android.widget.ListView;
 
 import androidx.annotation.NonNull;
 
-import com.borax12.materialdaterangepicker.Utils;
 import com.borax12.materialdaterangepicker.date.DatePickerDialog.OnDateChangedListener;
 
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.Locale;
-
 /**
  * This displays a list of months in a calendar format with selectable days.
  */
@@ -63,7 +57,6 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
     protected int mNumWeeks = 6;
     protected boolean mShowWeekNumber = false;
     protected int mDaysPerWeek = 7;
-    private static SimpleDateFormat YEAR_FORMAT = new SimpleDateFormat("yyyy", Locale.getDefault());
 
     // These affect the scroll speed and feel
     protected float mFriction = 1.0f;
@@ -91,6 +84,8 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
     protected int mCurrentScrollState = OnScrollListener.SCROLL_STATE_IDLE;
 
     private DatePickerController mController;
+    private MonthPrefetcher mPrefetcher;
+    private MonthListHelper mHelper;
     private boolean mPerformingScroll;
 
     public DayPickerView(Context context, AttributeSet attrs) {
@@ -107,6 +102,8 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
     public void setController(DatePickerController controller) {
         mController = controller;
         mController.registerOnDateChangedListener(this);
+        mPrefetcher.setController(controller);
+        mHelper.setController(controller);
         refreshAdapter();
         onDateChanged();
     }
@@ -117,6 +114,42 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
         setDrawSelectorOnTop(false);
 
         mContext = context;
+        mPrefetcher = new MonthPrefetcher(context);
+        mHelper = new MonthListHelper(this, mSelectedDay, mTempDay) {
+            @Override
+            int getFirstVisiblePosition() {
+                return getChildCount() > 0 ? DayPickerView.this.getFirstVisiblePosition() : -1;
+            }
+
+            @Override
+            int getLastVisiblePosition() {
+                return DayPickerView.this.getLastVisiblePosition();
+            }
+
+            @Override
+            boolean isFirstVisibleMonthComplete() {
+                // There's an off-by-one somewhere, so the top of the first visible item will
+                // actually be -1 when it's at the exact top.
+                final View firstVisibleView = getChildAt(0);
+                return firstVisibleView != null && firstVisibleView.getTop() >= -1;
+            }
+
+            @Override
+            int getPosition(int year, int month) {
+                return (year - mController.getMinYear()) * MonthAdapter.MONTHS_IN_YEAR + month;
+            }
+
+            @Override
+            void setSelectedDayQuietly(MonthAdapter.CalendarDay day) {
+                mAdapter.setSelectedDayQuietly(day);
+            }
+
+            @Override
+            boolean goTo(MonthAdapter.CalendarDay day, boolean animate, boolean setSelected,
+                    boolean forceScroll) {
+                return DayPickerView.this.goTo(day, animate, setSelected, forceScroll);
+            }
+        };
         setUpListView();
     }
 
@@ -234,6 +267,15 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
         return false;
     }
 
+    /**
+     * Same as {@link #goTo(MonthAdapter.CalendarDay, boolean, boolean, boolean)} for a day
+     * given as an {@link EpochDay}.
+     */
+    public boolean goTo(int epochDay, boolean animate, boolean setSelected, boolean forceScroll) {
+        mTempDay.setEpochDay(epochDay);
+        return goTo(mTempDay, animate, setSelected, forceScroll);
+    }
+
     public void postSetSelection(final int position) {
         clearFocus();
         post(new Runnable() {
@@ -248,7 +290,7 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
 
     /**
      * Updates the title and selected month if the view has moved to a new
-     * month.
+     * month, and prefetches the months it is moving towards.
      */
     @Override
     public void onScroll(
@@ -260,6 +302,8 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
 
         // Figure out where we are
         long currScroll = view.getFirstVisiblePosition() * child.getHeight() - child.getBottom();
+        mPrefetcher.onScrolled(firstVisibleItem, firstVisibleItem + visibleItemCount - 1,
+                totalItemCount, (int) (currScroll - mPreviousScrollPosition), child.getHeight());
         mPreviousScrollPosition = currScroll;
         mPreviousScrollState = mCurrentScrollState;
     }
@@ -371,7 +415,25 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
 
     @Override
     public void onDateChanged() {
-        goTo(mController.getSelectedDay(), false, true, true);
+        mHelper.onDateChanged();
+    }
+
+    @Override
+    protected void onVisibilityChanged(@NonNull View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        // Can be called from the View constructor, before init()
+        if (mHelper != null) {
+            mHelper.onVisibilityChanged();
+        }
+    }
+
+    /**
+     * Redraws the given month if it is on screen, after its available days have been loaded.
+     *
+     * @param month The month (0-11)
+     */
+    void refreshMonth(int year, int month) {
+        mHelper.refreshMonth(year, month);
     }
 
     /**
@@ -441,77 +503,24 @@ public abstract class DayPickerView extends ListView implements OnScrollListener
         event.setItemCount(-1);
    }
 
-    private static String getMonthAndYearString(MonthAdapter.CalendarDay day) {
-        Calendar cal = Calendar.getInstance();
-        cal.set(day.year, day.month, day.day);
-
-        String sbuf = "";
-        sbuf += cal.getDisplayName(Calendar.MONTH, Calendar.LONG, Locale.getDefault());
-        sbuf += " ";
-        sbuf += YEAR_FORMAT.format(cal.getTime());
-        return sbuf;
-    }
-
     /**
      * Necessary for accessibility, to ensure we support "scrolling" forward and backward
      * in the month list.
      */
     @Override
-    @SuppressWarnings("deprecation")
     public void onInitializeAccessibilityNodeInfo(@NonNull AccessibilityNodeInfo info) {
         super.onInitializeAccessibilityNodeInfo(info);
-        if(Build.VERSION.SDK_INT >= 21) {
-            info.addAction(AccessibilityNodeInfo.AccessibilityAction.ACTION_SCROLL_BACKWARD);
-            info.addAction(AccessibilityNodeInfo.AccessibilityAction.ACTION_SCROLL_FORWARD);
-        }
-        else {
-            info.addAction(AccessibilityNodeInfo.ACTION_SCROLL_FORWARD);
-            info.addAction(AccessibilityNodeInfo.ACTION_SCROLL_BACKWARD);
-        }
+        MonthListHelper.addScrollActions(info);
     }
 
     /**
      * When scroll forward/backward events are received, announce the newly scrolled-to month.
      */
-    @SuppressLint("NewApi")
     @Override
     public boolean performAccessibilityAction(int action, Bundle arguments) {
-        if (action != AccessibilityNodeInfo.ACTION_SCROLL_FORWARD &&
-                action != AccessibilityNodeInfo.ACTION_SCROLL_BACKWARD) {
+        if (!mHelper.performScrollAction(action)) {
             return super.performAccessibilityAction(action, arguments);
         }
-
-        // Figure out what month is showing.
-        int firstVisiblePosition = getFirstVisiblePosition();
-        int month = firstVisiblePosition % 12;
-        int year = firstVisiblePosition / 12 + mController.getMinYear();
-        MonthAdapter.CalendarDay day = new MonthAdapter.CalendarDay(year, month, 1);
-
-        // Scroll either forward or backward one month.
-        if (action == AccessibilityNodeInfo.ACTION_SCROLL_FORWARD) {
-            day.month++;
-            if (day.month == 12) {
-                day.month = 0;
-                day.year++;
-            }
-        } else if (action == AccessibilityNodeInfo.ACTION_SCROLL_BACKWARD) {
-            View firstVisibleView = getChildAt(0);
-            // If the view is fully visible, jump one month back. Otherwise, we'll just jump
-            // to the first day of first visible month.
-            if (firstVisibleView != null && firstVisibleView.getTop() >= -1) {
-                // There's an off-by-one somewhere, so the top of the first visible item will
-                // actually be -1 when it's at the exact top.
-                day.month--;
-                if (day.month == -1) {
-                    day.month = 11;
-                    day.year--;
-                }
-            }
-        }
-
-        // Go to that month.
-        Utils.tryAccessibilityAnnounce(this, getMonthAndYearString(day));
-        goTo(day, true, false, true);
         mPerformingScroll = true;
         return true;
     }
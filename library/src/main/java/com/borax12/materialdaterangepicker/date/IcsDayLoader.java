@@ -0,0 +1,112 @@
+package com.borax12.materialdaterangepicker.date;
+
+import android.content.Context;
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.concurrent.Executor;
+
+/**
+ * Reads the days of the events of an iCalendar (.ics) file, e.g. public holidays or blackout
+ * dates, on a background thread with an {@link IcsDayReader}, and hands them over on the main
+ * thread as an {@link EpochDaySet} ready for
+ * {@link DatePickerDialog#setHighlightedDays(EpochDaySet, EpochDaySet)} or
+ * {@link DatePickerDialog#setSelectableDays(EpochDaySet)}.
+ */
+public final class IcsDayLoader {
+
+    /**
+     * Receives the result of a load on the main thread.
+     */
+    public interface Callback {
+        void onDaysLoaded(EpochDaySet days);
+
+        void onLoadFailed(IOException e);
+    }
+
+    private interface Source {
+        InputStream open() throws IOException;
+    }
+
+    private IcsDayLoader() {
+    }
+
+    /**
+     * Reads the days of a file, e.g. one downloaded earlier, on
+     * {@link AsyncTask#THREAD_POOL_EXECUTOR}.
+     *
+     * @param firstEpochDay The first day to read, see {@link EpochDay}
+     * @param lastEpochDay The last day to read, which also ends recurring events
+     */
+    public static void load(final File file, int firstEpochDay, int lastEpochDay,
+            Callback callback) {
+        load(new Source() {
+            @Override
+            public InputStream open() throws IOException {
+                return new FileInputStream(file);
+            }
+        }, firstEpochDay, lastEpochDay, AsyncTask.THREAD_POOL_EXECUTOR, callback);
+    }
+
+    /**
+     * Same as {@link #load(File, int, int, Callback)} for a file bundled in the assets of the
+     * app.
+     *
+     * @param assetName The path of the file in the assets
+     */
+    public static void loadAsset(Context context, final String assetName, int firstEpochDay,
+            int lastEpochDay, Callback callback) {
+        final Context appContext = context.getApplicationContext();
+        load(new Source() {
+            @Override
+            public InputStream open() throws IOException {
+                return appContext.getAssets().open(assetName);
+            }
+        }, firstEpochDay, lastEpochDay, AsyncTask.THREAD_POOL_EXECUTOR, callback);
+    }
+
+    private static void load(final Source source, final int firstEpochDay,
+            final int lastEpochDay, Executor executor, final Callback callback) {
+        final Handler handler = new Handler(Looper.getMainLooper());
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final EpochDaySet days = new EpochDaySet();
+                IOException error = null;
+                InputStream in = null;
+                try {
+                    in = source.open();
+                    new IcsDayReader(firstEpochDay, lastEpochDay)
+                            .read(new InputStreamReader(in, "UTF-8"), days);
+                } catch (IOException e) {
+                    error = e;
+                } finally {
+                    if (in != null) {
+                        try {
+                            in.close();
+                        } catch (IOException ignored) {
+                        }
+                    }
+                }
+
+                final IOException failure = error;
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (failure != null) {
+                            callback.onLoadFailed(failure);
+                        } else {
+                            callback.onDaysLoaded(days);
+                        }
+                    }
+                });
+            }
+        });
+    }
+}
@@ -23,10 +23,10 @@ import android.view.ViewGroup;
 import android.widget.AbsListView.LayoutParams;
 import android.widget.BaseAdapter;
 
+import com.borax12.materialdaterangepicker.PickerTrace;
 import com.borax12.materialdaterangepicker.date.MonthView.OnDayClickListener;
 
 import java.util.Calendar;
-import java.util.HashMap;
 
 /**
  * An adapter for a list of {@link MonthView} items.
@@ -44,6 +44,8 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
 
     protected static int WEEK_7_OVERHANG_HEIGHT = 7;
     protected static final int MONTHS_IN_YEAR = 12;
+    // Months on each side of a bound month whose available days are loaded along with it
+    private static final int AVAILABILITY_WINDOW = 1;
 
     /**
      * A convenience class to represent a specific date.
@@ -84,6 +86,12 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
             this.day = day;
         }
 
+        public void setEpochDay(int epochDay) {
+            year = EpochDay.year(epochDay);
+            month = EpochDay.month(epochDay);
+            day = EpochDay.day(epochDay);
+        }
+
         private void setTime(long timeInMillis) {
             if (calendar == null) {
                 calendar = Calendar.getInstance();
@@ -105,6 +113,10 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
         public int getDay() {
             return day;
         }
+
+        public int getEpochDay() {
+            return EpochDay.of(year, month, day);
+        }
     }
 
     public MonthAdapter(Context context,
@@ -112,7 +124,7 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
         mContext = context;
         mController = controller;
         init();
-        setSelectedDay(mController.getSelectedDay());
+        mSelectedDay.setEpochDay(mController.getSelectedEpochDay());
     }
 
     public void setAccentColor(int color) {
@@ -125,10 +137,20 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
      * @param day The day to highlight
      */
     public void setSelectedDay(CalendarDay day) {
-        mSelectedDay = day;
+        mSelectedDay.set(day);
         notifyDataSetChanged();
     }
 
+    /**
+     * Updates the selected day without rebinding the views, for callers that redraw the views
+     * showing the old and new selection themselves.
+     *
+     * @param day The day to highlight
+     */
+    void setSelectedDayQuietly(CalendarDay day) {
+        mSelectedDay.set(day);
+    }
+
     public CalendarDay getSelectedDay() {
         return mSelectedDay;
     }
@@ -161,15 +183,12 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
     }
 
     @SuppressLint("NewApi")
-    @SuppressWarnings("unchecked")
     @Override
     public View getView(int position, View convertView, ViewGroup parent) {
+        PickerTrace.beginSection("MonthAdapter#getView");
         MonthView v;
-        HashMap<String, Integer> drawingParams = null;
         if (convertView != null) {
             v = (MonthView) convertView;
-            // We store the drawing parameters in the view so it can be recycled
-            drawingParams = (HashMap<String, Integer>) v.getTag();
         } else {
             v = createMonthView(mContext);
             // Set up the new view
@@ -182,10 +201,6 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
                 v.setAccentColor(mAccentColor);
             }
         }
-        if (drawingParams == null) {
-            drawingParams = new HashMap<String, Integer>();
-        }
-        drawingParams.clear();
 
         final int month = position % MONTHS_IN_YEAR;
         final int year = position / MONTHS_IN_YEAR + mController.getMinYear();
@@ -195,19 +210,29 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
             selectedDay = mSelectedDay.day;
         }
 
+        requestAvailableDays(position);
+
         // Invokes requestLayout() to ensure that the recycled view is set with the appropriate
         // height/number of weeks before being displayed.
         v.reuse();
 
-        drawingParams.put(MonthView.VIEW_PARAMS_SELECTED_DAY, selectedDay);
-        drawingParams.put(MonthView.VIEW_PARAMS_YEAR, year);
-        drawingParams.put(MonthView.VIEW_PARAMS_MONTH, month);
-        drawingParams.put(MonthView.VIEW_PARAMS_WEEK_START, mController.getFirstDayOfWeek());
-        v.setMonthParams(drawingParams);
+        v.bind(year, month, selectedDay, mController.getFirstDayOfWeek());
         v.invalidate();
+        PickerTrace.endSection();
         return v;
     }
 
+    /**
+     * Starts loading the available days of the month at the given position and of its
+     * neighbours, so that they are usually known by the time the neighbours are scrolled to.
+     */
+    private void requestAvailableDays(int position) {
+        final int first = Math.max(position - AVAILABILITY_WINDOW, 0);
+        final int last = Math.min(position + AVAILABILITY_WINDOW, getCount() - 1);
+        mController.requestAvailableDays(first / MONTHS_IN_YEAR + mController.getMinYear(),
+                first % MONTHS_IN_YEAR, last - first + 1);
+    }
+
     public abstract MonthView createMonthView(Context context);
 
     private boolean isSelectedDayInMonth(int year, int month) {
@@ -216,20 +241,20 @@ public abstract class MonthAdapter extends BaseAdapter implements OnDayClickList
 
 
     @Override
-    public void onDayClick(MonthView view, CalendarDay day) {
-        if (day != null) {
-            onDayTapped(day);
-        }
+    public void onDayClick(MonthView view, int epochDay) {
+        onDayTapped(epochDay);
     }
 
     /**
      * Maintains the same hour/min/sec but moves the day to the tapped day.
      *
-     * @param day The day that was tapped
+     * @param epochDay The day that was tapped, see {@link EpochDay}
      */
-    protected void onDayTapped(CalendarDay day) {
+    protected void onDayTapped(int epochDay) {
         mController.tryVibrate();
-        mController.onDayOfMonthSelected(day.year, day.month, day.day);
-        setSelectedDay(day);
+        mController.onDayOfMonthSelected(epochDay);
+        // The DayPickerView is told about the change by the controller and redraws only the days
+        // that changed
+        mSelectedDay.setEpochDay(epochDay);
     }
 }
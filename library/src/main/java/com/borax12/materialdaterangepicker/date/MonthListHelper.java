@@ -0,0 +1,224 @@
+package com.borax12.materialdaterangepicker.date;
+
+import android.os.Build;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.accessibility.AccessibilityNodeInfo;
+
+import com.borax12.materialdaterangepicker.Utils;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Locale;
+
+/**
+ * What the lists of months, {@link DayPickerView} and {@link DayPickerRecyclerView}, do the same
+ * way: following the selected date, redrawing the months whose days changed, and scrolling by
+ * months for accessibility services. Each list tells where its months are by implementing the
+ * abstract methods.
+ */
+abstract class MonthListHelper {
+
+    private static SimpleDateFormat YEAR_FORMAT = new SimpleDateFormat("yyyy", Locale.getDefault());
+
+    private final ViewGroup mList;
+    private final MonthAdapter.CalendarDay mSelectedDay;
+    private final MonthAdapter.CalendarDay mTempDay;
+    private DatePickerController mController;
+    // Whether the date changed while the list was hidden
+    private boolean mDateChangedWhileHidden;
+
+    /**
+     * @param list The list, whose children are {@link MonthView}s
+     * @param selectedDay The day the list shows as selected, updated in place
+     * @param tempDay A day the helper can use as scratch
+     */
+    MonthListHelper(ViewGroup list, MonthAdapter.CalendarDay selectedDay,
+            MonthAdapter.CalendarDay tempDay) {
+        mList = list;
+        mSelectedDay = selectedDay;
+        mTempDay = tempDay;
+    }
+
+    /**
+     * @return The position of the first month on screen, or -1 if none is
+     */
+    abstract int getFirstVisiblePosition();
+
+    abstract int getLastVisiblePosition();
+
+    /**
+     * @return true if the first month on screen is shown in full
+     */
+    abstract boolean isFirstVisibleMonthComplete();
+
+    /**
+     * @param month The month (0-11)
+     */
+    abstract int getPosition(int year, int month);
+
+    /**
+     * Tells the adapter of the list about the new selected day, without rebinding any month.
+     */
+    abstract void setSelectedDayQuietly(MonthAdapter.CalendarDay day);
+
+    /**
+     * See {@link DayPickerView#goTo(MonthAdapter.CalendarDay, boolean, boolean, boolean)}.
+     */
+    abstract boolean goTo(MonthAdapter.CalendarDay day, boolean animate, boolean setSelected,
+            boolean forceScroll);
+
+    void setController(DatePickerController controller) {
+        mController = controller;
+    }
+
+    /**
+     * Follows the selected date, redrawing the months on screen if it is among them and
+     * scrolling to it otherwise. Waits for the list to be shown again if it is hidden.
+     */
+    void onDateChanged() {
+        if (mList.getWindowToken() != null && !mList.isShown()) {
+            // Catch up once shown instead of rebinding a list nobody sees
+            mDateChangedWhileHidden = true;
+            return;
+        }
+        mDateChangedWhileHidden = false;
+        final int epochDay = mController.getSelectedEpochDay();
+        if (!updateVisibleSelection(epochDay)) {
+            mTempDay.setEpochDay(epochDay);
+            goTo(mTempDay, false, true, true);
+        }
+    }
+
+    /**
+     * Called from {@link View#onVisibilityChanged(View, int)} of the list.
+     */
+    void onVisibilityChanged() {
+        if (mDateChangedWhileHidden && mList.isShown()) {
+            onDateChanged();
+        }
+    }
+
+    /**
+     * Moves the selection to the given day when its month is already on screen, redrawing only
+     * the days that changed instead of rebinding every visible month.
+     *
+     * @param epochDay The newly selected day, see {@link EpochDay}
+     * @return false if the month of the day isn't visible and nothing was done
+     */
+    private boolean updateVisibleSelection(int epochDay) {
+        mTempDay.setEpochDay(epochDay);
+        final int position = getPosition(mTempDay.year, mTempDay.month);
+        final int first = getFirstVisiblePosition();
+        if (first < 0 || position < first || position > getLastVisiblePosition()) {
+            return false;
+        }
+
+        final int previousYear = mSelectedDay.year;
+        final int previousMonth = mSelectedDay.month;
+        mSelectedDay.set(mTempDay);
+        setSelectedDayQuietly(mSelectedDay);
+
+        final int childCount = mList.getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            final View child = mList.getChildAt(i);
+            if (!(child instanceof MonthView)) {
+                continue;
+            }
+            final MonthView monthView = (MonthView) child;
+            // The highlighted days may follow the selection
+            monthView.refreshDayStates();
+            if (monthView.mYear == mSelectedDay.year && monthView.mMonth == mSelectedDay.month) {
+                monthView.updateSelectedDay(mSelectedDay.day);
+            } else if (monthView.mYear == previousYear && monthView.mMonth == previousMonth) {
+                monthView.updateSelectedDay(-1);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Redraws the given month if it is on screen, after its available days have been loaded.
+     *
+     * @param month The month (0-11)
+     */
+    void refreshMonth(int year, int month) {
+        final int childCount = mList.getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            final View child = mList.getChildAt(i);
+            if (child instanceof MonthView) {
+                final MonthView monthView = (MonthView) child;
+                if (monthView.mYear == year && monthView.mMonth == month) {
+                    monthView.refreshDayStates();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Necessary for accessibility, to ensure we support "scrolling" forward and backward
+     * in the month list.
+     */
+    @SuppressWarnings("deprecation")
+    static void addScrollActions(AccessibilityNodeInfo info) {
+        if(Build.VERSION.SDK_INT >= 21) {
+            info.addAction(AccessibilityNodeInfo.AccessibilityAction.ACTION_SCROLL_BACKWARD);
+            info.addAction(AccessibilityNodeInfo.AccessibilityAction.ACTION_SCROLL_FORWARD);
+        }
+        else {
+            info.addAction(AccessibilityNodeInfo.ACTION_SCROLL_FORWARD);
+            info.addAction(AccessibilityNodeInfo.ACTION_SCROLL_BACKWARD);
+        }
+    }
+
+    /**
+     * When scroll forward/backward events are received, announce and go to the newly scrolled-to
+     * month.
+     *
+     * @return false if the action isn't a scroll and was left to the list
+     */
+    boolean performScrollAction(int action) {
+        if (action != AccessibilityNodeInfo.ACTION_SCROLL_FORWARD &&
+                action != AccessibilityNodeInfo.ACTION_SCROLL_BACKWARD) {
+            return false;
+        }
+
+        // Figure out what month is showing.
+        int firstVisiblePosition = Math.max(getFirstVisiblePosition(), 0);
+        int month = firstVisiblePosition % 12;
+        int year = firstVisiblePosition / 12 + mController.getMinYear();
+        MonthAdapter.CalendarDay day = new MonthAdapter.CalendarDay(year, month, 1);
+
+        // Scroll either forward or backward one month.
+        if (action == AccessibilityNodeInfo.ACTION_SCROLL_FORWARD) {
+            day.month++;
+            if (day.month == 12) {
+                day.month = 0;
+                day.year++;
+            }
+        } else if (action == AccessibilityNodeInfo.ACTION_SCROLL_BACKWARD) {
+            // If the first month is fully visible, jump one month back. Otherwise, we'll just
+            // jump to the first day of first visible month.
+            if (isFirstVisibleMonthComplete()) {
+                day.month--;
+                if (day.month == -1) {
+                    day.month = 11;
+                    day.year--;
+                }
+            }
+        }
+
+        // Go to that month.
+        Utils.tryAccessibilityAnnounce(mList, getMonthAndYearString(day));
+        goTo(day, true, false, true);
+        return true;
+    }
+
+    private static String getMonthAndYearString(MonthAdapter.CalendarDay day) {
+        Calendar cal = Calendar.getInstance();
+        cal.set(day.year, day.month, day.day);
+        return cal.getDisplayName(Calendar.MONTH, Calendar.LONG, Locale.getDefault()) + " "
+                + YEAR_FORMAT.format(cal.getTime());
+    }
+}
@@ -0,0 +1,125 @@
+package com.borax12.materialdaterangepicker.date;
+
+import android.content.Context;
+import android.os.AsyncTask;
+import android.os.SystemClock;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gets the months a list of {@link MonthView}s is scrolling towards ready before they are bound:
+ * their available days are loaded from the {@link DayAvailabilityProvider}, if any, and their
+ * titles are formatted, both on background threads.
+ *
+ * The faster the list scrolls, the more months ahead of the visible ones are prefetched, and
+ * work that hasn't started yet for months the list has scrolled past is cancelled. Fed by the
+ * scroll callbacks of {@link DayPickerView} and {@link DayPickerRecyclerView}, on the main
+ * thread.
+ */
+final class MonthPrefetcher {
+
+    private static final int MONTHS_IN_YEAR = 12;
+    // How far ahead of the list to prefetch, in time at the current scroll speed
+    private static final int LOOKAHEAD_MILLIS = 500;
+    private static final int MIN_MONTHS_AHEAD = 2;
+    private static final int MAX_MONTHS_AHEAD = 12;
+    // Longer than this between two scroll callbacks and the scroll is taken to have just started
+    private static final int MAX_FRAME_GAP_MILLIS = 100;
+
+    private final Context mContext;
+    private DatePickerController mController;
+
+    private long mLastScrollTime;
+    // The positions prefetched last, so that a scroll within the same months does nothing
+    private int mFirstPrefetched = -1;
+    private int mLastPrefetched = -1;
+    // Bumped for every new batch of titles, which stops the previous one
+    private final AtomicInteger mTitleBatch = new AtomicInteger();
+
+    MonthPrefetcher(Context context) {
+        mContext = context.getApplicationContext();
+    }
+
+    void setController(DatePickerController controller) {
+        mController = controller;
+        mFirstPrefetched = -1;
+        mLastPrefetched = -1;
+    }
+
+    /**
+     * @param firstVisible The position of the first visible month
+     * @param lastVisible The position of the last visible month
+     * @param itemCount The number of months in the list
+     * @param dy How far the list scrolled since the last call, in pixels, positive when moving
+     *            towards later months
+     * @param monthHeight The height of a month in pixels
+     */
+    void onScrolled(int firstVisible, int lastVisible, int itemCount, int dy, int monthHeight) {
+        final long now = SystemClock.uptimeMillis();
+        final long elapsed = now - mLastScrollTime;
+        mLastScrollTime = now;
+        if (mController == null || dy == 0 || monthHeight <= 0 || firstVisible < 0
+                || lastVisible < firstVisible) {
+            return;
+        }
+
+        final float pixelsPerMilli = elapsed > 0 && elapsed <= MAX_FRAME_GAP_MILLIS
+                ? Math.abs(dy) / (float) elapsed : 0;
+        final int monthsAhead = Math.max(MIN_MONTHS_AHEAD, Math.min(MAX_MONTHS_AHEAD,
+                (int) Math.ceil(pixelsPerMilli * LOOKAHEAD_MILLIS / monthHeight)));
+        final int first;
+        final int last;
+        if (dy > 0) {
+            first = lastVisible + 1;
+            last = Math.min(lastVisible + monthsAhead, itemCount - 1);
+        } else {
+            first = Math.max(firstVisible - monthsAhead, 0);
+            last = firstVisible - 1;
+        }
+        if (first == mFirstPrefetched && last == mLastPrefetched) {
+            return;
+        }
+        mFirstPrefetched = first;
+        mLastPrefetched = last;
+
+        // Keep what is on screen or ahead of it, drop what is behind
+        final int keepFirst = Math.min(first, firstVisible);
+        final int keepLast = Math.max(last, lastVisible);
+        mController.cancelAvailableDaysOutside(yearAt(keepFirst), monthAt(keepFirst),
+                keepLast - keepFirst + 1);
+        if (first > last) {
+            // Already at the end of the list
+            return;
+        }
+        mController.requestAvailableDays(yearAt(first), monthAt(first), last - first + 1);
+        prefetchTitles(first, last);
+    }
+
+    private void prefetchTitles(int first, int last) {
+        final int firstKey = yearAt(first) * MONTHS_IN_YEAR + monthAt(first);
+        final int count = last - first + 1;
+        final int batch = mTitleBatch.incrementAndGet();
+        final Context context = mContext;
+        AsyncTask.THREAD_POOL_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                for (int key = firstKey; key < firstKey + count; key++) {
+                    if (mTitleBatch.get() != batch) {
+                        // The list has moved on
+                        return;
+                    }
+                    DateLabelCache.getMonthTitle(context, key / MONTHS_IN_YEAR,
+                            key % MONTHS_IN_YEAR);
+                }
+            }
+        });
+    }
+
+    private int yearAt(int position) {
+        return position / MONTHS_IN_YEAR + mController.getMinYear();
+    }
+
+    private static int monthAt(int position) {
+        return position % MONTHS_IN_YEAR;
+    }
+}
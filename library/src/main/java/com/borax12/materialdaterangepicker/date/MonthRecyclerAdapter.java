@@ -0,0 +1,167 @@
+package com.borax12.materialdaterangepicker.date;
+
+import android.content.Context;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.borax12.materialdaterangepicker.PickerTrace;
+import com.borax12.materialdaterangepicker.date.MonthAdapter.CalendarDay;
+import com.borax12.materialdaterangepicker.date.MonthView.OnDayClickListener;
+
+/**
+ * A {@link RecyclerView} adapter for a list of {@link MonthView} items, see
+ * {@link DayPickerRecyclerView}.
+ */
+public class MonthRecyclerAdapter extends RecyclerView.Adapter<MonthRecyclerAdapter.MonthViewHolder>
+        implements OnDayClickListener {
+
+    protected static final int MONTHS_IN_YEAR = 12;
+    // Months on each side of a bound month whose available days are loaded along with it
+    private static final int AVAILABILITY_WINDOW = 1;
+
+    protected final DatePickerController mController;
+
+    private final CalendarDay mSelectedDay = new CalendarDay();
+
+    private int mAccentColor = -1;
+
+    /**
+     * Holds a single {@link MonthView}.
+     */
+    public static class MonthViewHolder extends RecyclerView.ViewHolder {
+        public final MonthView monthView;
+
+        public MonthViewHolder(MonthView monthView) {
+            super(monthView);
+            this.monthView = monthView;
+        }
+    }
+
+    public MonthRecyclerAdapter(DatePickerController controller) {
+        mController = controller;
+        mSelectedDay.setEpochDay(mController.getSelectedEpochDay());
+        setHasStableIds(true);
+    }
+
+    public void setAccentColor(int color) {
+        mAccentColor = color;
+    }
+
+    /**
+     * Updates the selected day and related parameters.
+     *
+     * @param day The day to highlight
+     */
+    public void setSelectedDay(CalendarDay day) {
+        mSelectedDay.set(day);
+        notifyDataSetChanged();
+    }
+
+    /**
+     * Updates the selected day without rebinding the views, for callers that redraw the views
+     * showing the old and new selection themselves.
+     *
+     * @param day The day to highlight
+     */
+    void setSelectedDayQuietly(CalendarDay day) {
+        mSelectedDay.set(day);
+    }
+
+    public CalendarDay getSelectedDay() {
+        return mSelectedDay;
+    }
+
+    /**
+     * @param month The month (0-11)
+     * @return The position of the given month in the list
+     */
+    public int getPosition(int year, int month) {
+        return (year - mController.getMinYear()) * MONTHS_IN_YEAR + month;
+    }
+
+    @Override
+    public int getItemCount() {
+        return ((mController.getMaxYear() - mController.getMinYear()) + 1) * MONTHS_IN_YEAR;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        // Count months from year 0 so that ids survive a change of the year range
+        return position + (long) mController.getMinYear() * MONTHS_IN_YEAR;
+    }
+
+    @NonNull
+    @Override
+    public MonthViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        MonthView v = createMonthView(parent.getContext());
+        v.setLayoutParams(new RecyclerView.LayoutParams(
+                RecyclerView.LayoutParams.MATCH_PARENT, RecyclerView.LayoutParams.WRAP_CONTENT));
+        v.setClickable(true);
+        return new MonthViewHolder(v);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull MonthViewHolder holder, int position) {
+        PickerTrace.beginSection("MonthRecyclerAdapter#onBindViewHolder");
+        final MonthView v = holder.monthView;
+        // The view may have been created for another picker sharing the same view pool
+        v.setDatePickerController(mController);
+        v.setOnDayClickListener(this);
+        if (mAccentColor != -1) {
+            v.setAccentColor(mAccentColor);
+        }
+
+        final int month = position % MONTHS_IN_YEAR;
+        final int year = position / MONTHS_IN_YEAR + mController.getMinYear();
+
+        int selectedDay = -1;
+        if (mSelectedDay.year == year && mSelectedDay.month == month) {
+            selectedDay = mSelectedDay.day;
+        }
+
+        requestAvailableDays(position);
+
+        // Invokes requestLayout() to ensure that the recycled view is set with the appropriate
+        // height/number of weeks before being displayed.
+        v.reuse();
+
+        v.bind(year, month, selectedDay, mController.getFirstDayOfWeek());
+        v.invalidate();
+        PickerTrace.endSection();
+    }
+
+    /**
+     * Starts loading the available days of the month at the given position and of its
+     * neighbours, so that they are usually known by the time the neighbours are scrolled to.
+     */
+    private void requestAvailableDays(int position) {
+        final int first = Math.max(position - AVAILABILITY_WINDOW, 0);
+        final int last = Math.min(position + AVAILABILITY_WINDOW, getItemCount() - 1);
+        mController.requestAvailableDays(first / MONTHS_IN_YEAR + mController.getMinYear(),
+                first % MONTHS_IN_YEAR, last - first + 1);
+    }
+
+    public MonthView createMonthView(Context context) {
+        return new SimpleMonthView(context, null, mController);
+    }
+
+    @Override
+    public void onDayClick(MonthView view, int epochDay) {
+        onDayTapped(epochDay);
+    }
+
+    /**
+     * Maintains the same hour/min/sec but moves the day to the tapped day.
+     *
+     * @param epochDay The day that was tapped, see {@link EpochDay}
+     */
+    protected void onDayTapped(int epochDay) {
+        mController.tryVibrate();
+        mController.onDayOfMonthSelected(epochDay);
+        // The DayPickerRecyclerView is told about the change by the controller and redraws only
+        // the days that changed
+        mSelectedDay.setEpochDay(epochDay);
+    }
+}
@@ -32,23 +32,23 @@ import androidx.core.view.accessibility.AccessibilityNodeInfoCompat;
 import androidx.customview.widget.ExploreByTouchHelper;
 
 import android.text.format.DateFormat;
-import android.text.format.DateUtils;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.accessibility.AccessibilityEvent;
 import android.view.accessibility.AccessibilityNodeInfo;
 
+import com.borax12.materialdaterangepicker.CacheStats;
+import com.borax12.materialdaterangepicker.PickerMetricsRecorder;
+import com.borax12.materialdaterangepicker.PickerTrace;
 import com.borax12.materialdaterangepicker.R;
 import com.borax12.materialdaterangepicker.TypefaceHelper;
 import com.borax12.materialdaterangepicker.date.MonthAdapter.CalendarDay;
 
 import java.security.InvalidParameterException;
 import java.util.Calendar;
-import java.util.Formatter;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 
 /**
  * A calendar-like view displaying a specified month and the appropriate selectable day numbers
@@ -110,6 +110,20 @@ public abstract class MonthView extends View {
     protected static final int MAX_NUM_ROWS = 6;
 
     private static final int SELECTED_CIRCLE_ALPHA = 255;
+    private static final int RANGE_BAND_ALPHA = 60;
+    // Dims the numbers of the days whose availability is still being loaded
+    private static final int PENDING_DAY_ALPHA = 96;
+    // Alpha of the lightest and strongest steps of the heatmap ramp
+    private static final int HEATMAP_MIN_ALPHA = 24;
+    private static final int HEATMAP_MAX_ALPHA = 160;
+
+    /**
+     * The states a day number can be drawn in, see {@link #getDayNumberPaint(int, boolean)}.
+     */
+    protected static final int DAY_STATE_NORMAL = 0;
+    protected static final int DAY_STATE_TODAY = 1;
+    protected static final int DAY_STATE_SELECTED = 2;
+    protected static final int DAY_STATE_DISABLED = 3;
 
     protected static int DAY_SEPARATOR_WIDTH = 1;
     protected static int MINI_DAY_NUMBER_TEXT_SIZE;
@@ -117,6 +131,8 @@ public abstract class MonthView extends View {
     protected static int MONTH_DAY_LABEL_TEXT_SIZE;
     protected static int MONTH_HEADER_SIZE;
     protected static int DAY_SELECTED_CIRCLE_SIZE;
+    protected static int DAY_DECORATION_TEXT_SIZE;
+    protected static int DAY_DECORATION_DOT_RADIUS;
 
     // used for scaling to the device density
     protected static float mScale = 0;
@@ -132,13 +148,26 @@ public abstract class MonthView extends View {
     protected Paint mMonthNumPaint;
     protected Paint mMonthTitlePaint;
     protected Paint mSelectedCirclePaint;
+    protected Paint mRangeBandPaint;
     protected Paint mMonthDayLabelPaint;
-
-    private final Formatter mFormatter;
-    private final StringBuilder mStringBuilder;
+    protected Paint mDayDecorationPaint;
+    // One per step of the heatmap color ramp, from the lightest to the strongest
+    private final Paint[] mHeatmapPaints = new Paint[DayHeatmap.LEVELS];
+    // Day number paints indexed by DAY_STATE_* and then by whether the day is highlighted
+    private final Paint[][] mDayNumberPaints = new Paint[DAY_STATE_DISABLED + 1][2];
+    private Paint mPendingDayNumberPaint;
+
+    // Day numbers for the current locale and their widths, measured for up to two typefaces
+    private String[] mDayNumbers;
+    private final Typeface[] mMeasuredTypefaces = new Typeface[2];
+    private final float[] mMeasuredTextSizes = {-1, -1};
+    private final float[][] mDayNumberWidths = new float[2][32];
+    private int mNextMeasuredSlot;
 
     // The Julian day of the first day displayed by this item
     protected int mFirstJulianDay = -1;
+    // The epoch day of the first day of this month
+    protected int mFirstEpochDay;
     // The month of the first day in this week
     protected int mFirstMonth = -1;
     // The month of the last day in this week
@@ -169,11 +198,32 @@ public abstract class MonthView extends View {
     protected int mSelectedRight = -1;
 
     private final Calendar mCalendar;
-    protected final Calendar mDayLabelCalendar;
     private final MonthViewTouchHelper mTouchHelper;
 
     protected int mNumRows = DEFAULT_NUM_ROWS;
 
+    // Per-day state of the month, bit (day - 1) stands for each day of the month
+    private int mDisabledDays;
+    // The disabled days that are out of the range of the controller, whatever their availability
+    private int mOutOfRangeDays;
+    private int mHighlightedDays;
+    private int mTodayDays;
+    private int mSelectedDays;
+    // Days within the range selected in this calendar, and the two ends of that range
+    private int mRangeDays;
+    private int mRangeEndDays;
+    // What the disabled and highlighted masks were compiled for
+    private DatePickerController mMaskController;
+    private int mMaskGeneration;
+    private int mMaskFirstEpochDay;
+    private int mMaskAvailableDays;
+    // Whether the available days of the month are still being loaded
+    private boolean mAvailabilityPending;
+    // Set by the DayDecorator of the controller, null if no day of the month is decorated
+    private DayDecorations mDecorations;
+    // The heatmap of the controller during onDraw, if any
+    private DayHeatmap mHeatmap;
+
     // Optional listener for handling day click actions
     protected OnDayClickListener mOnDayClickListener;
 
@@ -197,7 +247,6 @@ public abstract class MonthView extends View {
         mController = controller;
         Resources res = context.getResources();
 
-        mDayLabelCalendar = Calendar.getInstance();
         mCalendar = Calendar.getInstance();
 
         mDayOfWeekTypeface = res.getString(R.string.range_day_of_week_label_typeface);
@@ -220,15 +269,16 @@ public abstract class MonthView extends View {
         mTodayNumberColor = res.getColor(R.color.range_accent_color);
         mMonthTitleColor = res.getColor(R.color.range_white);
 
-        mStringBuilder = new StringBuilder(50);
-        mFormatter = new Formatter(mStringBuilder, Locale.getDefault());
-
         MINI_DAY_NUMBER_TEXT_SIZE = res.getDimensionPixelSize(R.dimen.range_day_number_size);
         MONTH_LABEL_TEXT_SIZE = res.getDimensionPixelSize(R.dimen.range_month_label_size);
         MONTH_DAY_LABEL_TEXT_SIZE = res.getDimensionPixelSize(R.dimen.range_month_day_label_text_size);
         MONTH_HEADER_SIZE = res.getDimensionPixelOffset(R.dimen.range_month_list_item_header_height);
         DAY_SELECTED_CIRCLE_SIZE = res
                 .getDimensionPixelSize(R.dimen.range_day_number_select_circle_radius);
+        DAY_DECORATION_TEXT_SIZE = res
+                .getDimensionPixelSize(R.dimen.range_day_decoration_text_size);
+        DAY_DECORATION_DOT_RADIUS = res
+                .getDimensionPixelSize(R.dimen.range_day_decoration_dot_radius);
 
         mRowHeight = (res.getDimensionPixelOffset(R.dimen.range_date_picker_view_animator_height)
                 - getMonthHeaderSize()) / MAX_NUM_ROWS;
@@ -308,6 +358,12 @@ public abstract class MonthView extends View {
         mSelectedCirclePaint.setStyle(Style.FILL);
         mSelectedCirclePaint.setAlpha(SELECTED_CIRCLE_ALPHA);
 
+        mRangeBandPaint = new Paint();
+        mRangeBandPaint.setAntiAlias(true);
+        mRangeBandPaint.setColor(mTodayNumberColor);
+        mRangeBandPaint.setStyle(Style.FILL);
+        mRangeBandPaint.setAlpha(RANGE_BAND_ALPHA);
+
         mMonthDayLabelPaint = new Paint();
         mMonthDayLabelPaint.setAntiAlias(true);
         mMonthDayLabelPaint.setTextSize(MONTH_DAY_LABEL_TEXT_SIZE);
@@ -317,24 +373,99 @@ public abstract class MonthView extends View {
         mMonthDayLabelPaint.setTextAlign(Align.CENTER);
         mMonthDayLabelPaint.setFakeBoldText(true);
 
+        mDayDecorationPaint = new Paint();
+        mDayDecorationPaint.setAntiAlias(true);
+        mDayDecorationPaint.setTextSize(DAY_DECORATION_TEXT_SIZE);
+        mDayDecorationPaint.setStyle(Style.FILL);
+        mDayDecorationPaint.setTextAlign(Align.CENTER);
+        // Only used by the strike through
+        mDayDecorationPaint.setStrokeWidth(DAY_DECORATION_DOT_RADIUS / 2f);
+
+        for (int level = 0; level < mHeatmapPaints.length; level++) {
+            mHeatmapPaints[level] = new Paint();
+            mHeatmapPaints[level].setStyle(Style.FILL);
+        }
+        setHeatmapColor(mTodayNumberColor);
+
         mMonthNumPaint = new Paint();
         mMonthNumPaint.setAntiAlias(true);
         mMonthNumPaint.setTextSize(MINI_DAY_NUMBER_TEXT_SIZE);
         mMonthNumPaint.setStyle(Style.FILL);
         mMonthNumPaint.setTextAlign(Align.CENTER);
         mMonthNumPaint.setFakeBoldText(false);
+
+        final Typeface normal = Typeface.create(Typeface.DEFAULT, Typeface.NORMAL);
+        final Typeface bold = Typeface.create(Typeface.DEFAULT, Typeface.BOLD);
+        setDayNumberPaints(DAY_STATE_NORMAL, createDayNumberPaint(mDayTextColor, normal),
+                createDayNumberPaint(mHighlightedDayTextColor, bold));
+        setDayNumberPaints(DAY_STATE_TODAY, createDayNumberPaint(mTodayNumberColor, normal),
+                createDayNumberPaint(mTodayNumberColor, bold));
+        final Paint selectedPaint = createDayNumberPaint(mSelectedDayTextColor, bold);
+        setDayNumberPaints(DAY_STATE_SELECTED, selectedPaint, selectedPaint);
+        setDayNumberPaints(DAY_STATE_DISABLED, createDayNumberPaint(mDisabledDayTextColor, normal),
+                createDayNumberPaint(mDisabledDayTextColor, bold));
+        mPendingDayNumberPaint = createDayNumberPaint(mDayTextColor, normal);
+        mPendingDayNumberPaint.setAlpha(PENDING_DAY_ALPHA);
+    }
+
+    private Paint createDayNumberPaint(int color, Typeface typeface) {
+        Paint paint = new Paint(mMonthNumPaint);
+        paint.setColor(color);
+        paint.setTypeface(typeface);
+        // Numbers are centered from their measured widths, see drawDayNumber()
+        paint.setTextAlign(Align.LEFT);
+        return paint;
+    }
+
+    private void setDayNumberPaints(int state, Paint paint, Paint highlightedPaint) {
+        mDayNumberPaints[state][0] = paint;
+        mDayNumberPaints[state][1] = highlightedPaint;
+    }
+
+    /**
+     * @param state One of {@link #DAY_STATE_NORMAL}, {@link #DAY_STATE_TODAY},
+     *            {@link #DAY_STATE_SELECTED} or {@link #DAY_STATE_DISABLED}
+     * @param highlighted Whether the day is highlighted
+     * @return The paint prepared for drawing day numbers in the given state with
+     * {@link #drawDayNumber(Canvas, int, int, int, Paint)}, which is left aligned. Don't modify it.
+     */
+    protected Paint getDayNumberPaint(int state, boolean highlighted) {
+        return mDayNumberPaints[state][highlighted ? 1 : 0];
     }
 
     public void setAccentColor(int color) {
         mTodayNumberColor = color;
         mSelectedCirclePaint.setColor(color);
+        mRangeBandPaint.setColor(color);
+        mRangeBandPaint.setAlpha(RANGE_BAND_ALPHA);
+        mDayNumberPaints[DAY_STATE_TODAY][0].setColor(color);
+        mDayNumberPaints[DAY_STATE_TODAY][1].setColor(color);
+        setHeatmapColor(color);
+    }
+
+    private void setHeatmapColor(int color) {
+        for (int level = 0; level < mHeatmapPaints.length; level++) {
+            mHeatmapPaints[level].setColor(color);
+            mHeatmapPaints[level].setAlpha(HEATMAP_MIN_ALPHA
+                    + (HEATMAP_MAX_ALPHA - HEATMAP_MIN_ALPHA) * level / (DayHeatmap.LEVELS - 1));
+        }
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
+        PickerTrace.beginSection("MonthView#onDraw");
+        final PickerMetricsRecorder metrics = getMetricsRecorder();
+        final boolean sampled = metrics != null && metrics.sampleDraw();
+        final long start = sampled ? System.nanoTime() : 0;
+        mHeatmap = mController != null ? mController.getHeatmap() : null;
         drawMonthTitle(canvas);
         drawMonthDayLabels(canvas);
+        drawRangeBand(canvas);
         drawMonthNums(canvas);
+        if (sampled) {
+            metrics.reportDraw(System.nanoTime() - start);
+        }
+        PickerTrace.endSection();
     }
 
     private int mDayOfWeekStart = 0;
@@ -346,6 +477,8 @@ public abstract class MonthView extends View {
      * which will always default to no focus month if no value is passed in. See
      * {@link #VIEW_PARAMS_HEIGHT} for more info on parameters.
      *
+     * Kept for compatibility, {@link #bind(int, int, int, int)} does the same without boxing.
+     *
      * @param params A map of the new parameters, see
      *            {@link #VIEW_PARAMS_HEIGHT}
      */
@@ -361,66 +494,277 @@ public abstract class MonthView extends View {
                 mRowHeight = MIN_HEIGHT;
             }
         }
-        if (params.containsKey(VIEW_PARAMS_SELECTED_DAY)) {
-            mSelectedDay = params.get(VIEW_PARAMS_SELECTED_DAY);
-        }
+        final int selectedDay = params.containsKey(VIEW_PARAMS_SELECTED_DAY)
+                ? params.get(VIEW_PARAMS_SELECTED_DAY) : mSelectedDay;
+        final int weekStart = params.containsKey(VIEW_PARAMS_WEEK_START)
+                ? params.get(VIEW_PARAMS_WEEK_START) : mCalendar.getFirstDayOfWeek();
+        bind(params.get(VIEW_PARAMS_YEAR), params.get(VIEW_PARAMS_MONTH), selectedDay, weekStart);
+    }
 
-        // Allocate space for caching the day numbers and focus values
-        mMonth = params.get(VIEW_PARAMS_MONTH);
-        mYear = params.get(VIEW_PARAMS_YEAR);
+    /**
+     * Sets the month displayed by this view.
+     *
+     * @param year The year
+     * @param month The month (0-11)
+     * @param selectedDay The selected day of the month, or -1 if it isn't in this month
+     * @param weekStart The first day of the week, {@link Calendar#SUNDAY} through
+     *            {@link Calendar#SATURDAY}
+     */
+    public void bind(int year, int month, int selectedDay, int weekStart) {
+        PickerTrace.beginSection("MonthView#bind");
+        final PickerMetricsRecorder metrics = getMetricsRecorder();
+        final boolean sampled = metrics != null && metrics.sampleBind();
+        final long start = sampled ? System.nanoTime() : 0;
+        mYear = year;
+        mMonth = month;
+        mSelectedDay = selectedDay;
+        mWeekStart = weekStart;
+
+        mFirstEpochDay = MonthLayout.firstEpochDay(mYear, mMonth);
+        mDayOfWeekStart = EpochDay.dayOfWeek(mFirstEpochDay);
+        mNumCells = MonthLayout.daysInMonth(mYear, mMonth);
 
         // Figure out what day today is
-        //final Time today = new Time(Time.getCurrentTimezone());
-        //today.setToNow();
-        final Calendar today = Calendar.getInstance();
-        mHasToday = false;
-        mToday = -1;
-
-        mCalendar.set(Calendar.MONTH, mMonth);
-        mCalendar.set(Calendar.YEAR, mYear);
-        mCalendar.set(Calendar.DAY_OF_MONTH, 1);
-        mDayOfWeekStart = mCalendar.get(Calendar.DAY_OF_WEEK);
-
-        if (params.containsKey(VIEW_PARAMS_WEEK_START)) {
-            mWeekStart = params.get(VIEW_PARAMS_WEEK_START);
-        } else {
-            mWeekStart = mCalendar.getFirstDayOfWeek();
-        }
-
-        mNumCells = mCalendar.getActualMaximum(Calendar.DAY_OF_MONTH);
-        for (int i = 0; i < mNumCells; i++) {
-            final int day = i + 1;
-            if (sameDay(day, today)) {
-                mHasToday = true;
-                mToday = day;
-            }
-        }
-        mNumRows = calculateNumRows();
+        final int today = EpochDay.today() - mFirstEpochDay + 1;
+        mHasToday = today >= 1 && today <= mNumCells;
+        mToday = mHasToday ? today : -1;
+        mTodayDays = dayBit(mToday);
+        mSelectedDays = dayBit(mSelectedDay);
+        compileDayMasks();
+        updateDecorations();
+
+        mNumRows = MonthLayout.numRows(mYear, mMonth, mWeekStart);
 
         // Invalidate cached accessibility information.
         mTouchHelper.invalidateRoot();
+        if (sampled) {
+            metrics.reportBind(System.nanoTime() - start);
+        }
+        PickerTrace.endSection();
+    }
+
+    private PickerMetricsRecorder getMetricsRecorder() {
+        return mController != null ? mController.getMetricsRecorder() : null;
     }
 
     public void setSelectedDay(int day) {
         mSelectedDay = day;
+        mSelectedDays = dayBit(day);
     }
 
-    public void reuse() {
-        mNumRows = DEFAULT_NUM_ROWS;
-        requestLayout();
+    /**
+     * Changes the selected day, redrawing only the cells of the previous and the new selection.
+     *
+     * @param day The selected day of the month, or -1 if it isn't in this month
+     */
+    public void updateSelectedDay(int day) {
+        if (day == mSelectedDay) {
+            return;
+        }
+        final int previous = mSelectedDay;
+        setSelectedDay(day);
+        invalidateDay(previous);
+        invalidateDay(day);
+    }
+
+    /**
+     * Picks up changes to the disabled and highlighted days of the controller without a rebind,
+     * redrawing the view only if they changed.
+     */
+    public void refreshDayStates() {
+        if (compileDayMasks()) {
+            invalidate();
+            mTouchHelper.invalidateRoot();
+        }
+        if (updateDecorations()) {
+            invalidate();
+        }
+    }
+
+    /**
+     * @return true if the decorations of the month changed
+     */
+    private boolean updateDecorations() {
+        final DayDecorations decorations = mController != null
+                ? mController.getDayDecorations(mYear, mMonth) : null;
+        if (decorations == mDecorations) {
+            return false;
+        }
+        mDecorations = decorations;
+        return true;
+    }
+
+    private void invalidateDay(int day) {
+        if (day < 1 || day > mNumCells) {
+            return;
+        }
+        // Same geometry as drawMonthNums
+        final float dayWidth = (mWidth - mEdgePadding * 2) / (float) mNumDays;
+        final int index = day - 1 + findDayOffset();
+        final float left = mEdgePadding + (index % mNumDays) * dayWidth;
+        final int top = getMonthHeaderSize() + (index / mNumDays) * mRowHeight;
+        invalidate((int) left, top, (int) Math.ceil(left + dayWidth), top + mRowHeight);
+        mTouchHelper.invalidateVirtualView(day);
+    }
+
+    /**
+     * Works out which days of the month are disabled and highlighted, unless that has already
+     * been done for this month under the current configuration of the controller.
+     *
+     * @return true if the masks were compiled again
+     */
+    private boolean compileDayMasks() {
+        if (mController == null) {
+            final boolean changed = (mDisabledDays | mHighlightedDays | mRangeDays) != 0;
+            mDisabledDays = 0;
+            mOutOfRangeDays = 0;
+            mHighlightedDays = 0;
+            mRangeDays = 0;
+            mRangeEndDays = 0;
+            mMaskController = null;
+            mAvailabilityPending = false;
+            return changed;
+        }
+        final int generation = mController.getConfigGeneration();
+        final int availableDays = mController.getAvailableDays(mYear, mMonth);
+        if (mMaskController == mController && mMaskGeneration == generation
+                && mMaskFirstEpochDay == mFirstEpochDay && mMaskAvailableDays == availableDays) {
+            CacheStats.MONTH_DAY_MASKS.hit();
+            return false;
+        }
+        CacheStats.MONTH_DAY_MASKS.miss();
+        final int rangeStart = mController.getSelectedRangeStart();
+        final int rangeEnd = mController.getSelectedRangeEnd();
+        // Every day is disabled until the available ones are known
+        final boolean pending = availableDays == DayAvailabilityCache.PENDING;
+        final int monthDays = -1 >>> (32 - mNumCells);
+        int outOfRange = 0;
+        int highlighted = 0;
+        int range = 0;
+        int rangeEnds = 0;
+        for (int day = 1; day <= mNumCells; day++) {
+            final int epochDay = mFirstEpochDay + day - 1;
+            if (isOutOfRange(epochDay)) outOfRange |= dayBit(day);
+            if (isHighlighted(epochDay)) highlighted |= dayBit(day);
+            if (epochDay >= rangeStart && epochDay <= rangeEnd) range |= dayBit(day);
+            if (epochDay == rangeStart || epochDay == rangeEnd) rangeEnds |= dayBit(day);
+        }
+        mDisabledDays = outOfRange | (pending ? monthDays : ~availableDays & monthDays);
+        mOutOfRangeDays = outOfRange;
+        mHighlightedDays = highlighted;
+        mRangeDays = range;
+        mRangeEndDays = rangeEnds;
+        mMaskController = mController;
+        mMaskGeneration = generation;
+        mMaskFirstEpochDay = mFirstEpochDay;
+        mMaskAvailableDays = availableDays;
+        mAvailabilityPending = pending;
+        return true;
+    }
+
+    private static int dayBit(int day) {
+        return day >= 1 ? 1 << (day - 1) : 0;
+    }
+
+    /**
+     * @param day The day of the month (1-31)
+     * @return The state to draw the day in, one of {@link #DAY_STATE_NORMAL},
+     * {@link #DAY_STATE_TODAY}, {@link #DAY_STATE_SELECTED} or {@link #DAY_STATE_DISABLED}
+     */
+    protected int getDayState(int day) {
+        final int bit = dayBit(day);
+        if ((mDisabledDays & bit) != 0) {
+            return DAY_STATE_DISABLED;
+        } else if (((mSelectedDays | mRangeEndDays) & bit) != 0) {
+            return DAY_STATE_SELECTED;
+        } else if ((mTodayDays & bit) != 0) {
+            return DAY_STATE_TODAY;
+        }
+        return DAY_STATE_NORMAL;
+    }
+
+    /**
+     * @param day The day of the month (1-31)
+     * @return true if the day is selected, or is either end of the range selected in this calendar
+     */
+    protected boolean isSelectedDay(int day) {
+        return ((mSelectedDays | mRangeEndDays) & dayBit(day)) != 0;
+    }
+
+    /**
+     * @param day The day of the month (1-31)
+     * @return true if the day can't be selected
+     */
+    protected boolean isDisabledDay(int day) {
+        return (mDisabledDays & dayBit(day)) != 0;
+    }
+
+    /**
+     * @return true while the days that can be picked in the month are being loaded from a
+     * {@link DayAvailabilityProvider}, during which every day is disabled. The days that aren't
+     * out of range are meanwhile drawn with {@link #getPendingDayNumberPaint()}.
+     */
+    protected boolean isAvailabilityPending() {
+        return mAvailabilityPending;
+    }
+
+    /**
+     * @param day The day of the month (1-31)
+     * @return true if the day is before the minimum date, after the maximum date or not one of
+     * the selectable days of the controller, whatever its availability
+     */
+    protected boolean isOutOfRangeDay(int day) {
+        return (mOutOfRangeDays & dayBit(day)) != 0;
+    }
+
+    /**
+     * @return The paint for the numbers of the days waiting for their availability, a dimmed
+     * version of the normal one so that loading doesn't look like nothing can be picked. Left
+     * aligned like {@link #getDayNumberPaint(int, boolean)}. Don't modify it.
+     */
+    protected Paint getPendingDayNumberPaint() {
+        return mPendingDayNumberPaint;
+    }
+
+    /**
+     * Only valid while drawing.
+     *
+     * @param day The day of the month (1-31)
+     * @return The step of the heatmap color ramp to tint the day with, see
+     * {@link #getHeatmapPaint(int)}, or {@link DayHeatmap#NO_LEVEL} if there is no heatmap or the
+     * day has no intensity
+     */
+    protected int getHeatmapLevel(int day) {
+        return mHeatmap != null ? mHeatmap.levelOf(mFirstEpochDay + day - 1) : DayHeatmap.NO_LEVEL;
     }
 
-    private int calculateNumRows() {
-        int offset = findDayOffset();
-        int dividend = (offset + mNumCells) / mNumDays;
-        int remainder = (offset + mNumCells) % mNumDays;
-        return (dividend + (remainder > 0 ? 1 : 0));
+    /**
+     * @param level A step of the heatmap color ramp, from 0 to {@link DayHeatmap#LEVELS} - 1
+     * @return The paint filling the days of that step, in the accent color
+     */
+    protected Paint getHeatmapPaint(int level) {
+        return mHeatmapPaints[level];
     }
 
-    private boolean sameDay(int day, Calendar today) {
-        return mYear == today.get(Calendar.YEAR) &&
-                mMonth == today.get(Calendar.MONTH) &&
-                day == today.get(Calendar.DAY_OF_MONTH);
+    /**
+     * @param day The day of the month (1-31)
+     * @return true if the day is highlighted
+     */
+    protected boolean isHighlightedDay(int day) {
+        return (mHighlightedDays & dayBit(day)) != 0;
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        // Views kept aside by the RecyclerView come back without being bound again, and may have
+        // missed the loading of their available days
+        refreshDayStates();
+    }
+
+    public void reuse() {
+        mNumRows = DEFAULT_NUM_ROWS;
+        requestLayout();
     }
 
     @Override
@@ -453,11 +797,7 @@ public abstract class MonthView extends View {
     }
 
     private String getMonthAndYearString() {
-        int flags = DateUtils.FORMAT_SHOW_DATE | DateUtils.FORMAT_SHOW_YEAR
-                | DateUtils.FORMAT_NO_MONTH_DAY;
-        mStringBuilder.setLength(0);
-        long millis = mCalendar.getTimeInMillis();
-        return DateUtils.formatDateRange(getContext(), mFormatter, millis, millis, flags, null).toString();
+        return DateLabelCache.getMonthTitle(getContext(), mYear, mMonth);
     }
 
     protected void drawMonthTitle(Canvas canvas) {
@@ -473,28 +813,8 @@ public abstract class MonthView extends View {
         for (int i = 0; i < mNumDays; i++) {
             int x = (2 * i + 1) * dayWidthHalf + mEdgePadding;
 
-            int calendarDay = (i + mWeekStart) % mNumDays;
-            mDayLabelCalendar.set(Calendar.DAY_OF_WEEK, calendarDay);
-            Locale locale = Locale.getDefault();
-            String localWeekDisplayName = mDayLabelCalendar.getDisplayName(Calendar.DAY_OF_WEEK, Calendar.SHORT, locale);
-            String weekString = localWeekDisplayName.toUpperCase(locale).substring(0, 1);
-
-            if (locale.equals(Locale.CHINA) || locale.equals(Locale.CHINESE) || locale.equals(Locale.SIMPLIFIED_CHINESE) || locale.equals(Locale.TRADITIONAL_CHINESE)) {
-                int len = localWeekDisplayName.length();
-                weekString = localWeekDisplayName.substring(len -1, len);
-            }
-
-            if (locale.getLanguage().equals("he") || locale.getLanguage().equals("iw")) {
-                if(mDayLabelCalendar.get(Calendar.DAY_OF_WEEK) != Calendar.SATURDAY) {
-                    int len = localWeekDisplayName.length();
-                    weekString = localWeekDisplayName.substring(len - 2, len - 1);
-                }
-                else {
-                    // I know this is duplication, but it makes the code easier to grok by
-                    // having all hebrew code in the same block
-                    weekString = localWeekDisplayName.toUpperCase(locale).substring(0, 1);
-                }
-            }
+            int calendarDay = (i + mWeekStart - 1) % mNumDays + 1;
+            String weekString = DateLabelCache.getWeekdayLabel(calendarDay);
             canvas.drawText(weekString, x, y, mMonthDayLabelPaint);
         }
     }
@@ -509,6 +829,7 @@ public abstract class MonthView extends View {
         int y = (((mRowHeight + MINI_DAY_NUMBER_TEXT_SIZE) / 2) - DAY_SEPARATOR_WIDTH)
                 + getMonthHeaderSize();
         final float dayWidthHalf = (mWidth - mEdgePadding * 2) / (mNumDays * 2.0f);
+        final DayDecorations decorations = mDecorations;
         int j = findDayOffset();
         for (int dayNumber = 1; dayNumber <= mNumCells; dayNumber++) {
             final int x = (int)((2 * j + 1) * dayWidthHalf + mEdgePadding);
@@ -521,6 +842,9 @@ public abstract class MonthView extends View {
             final int stopY = (int)(startY + mRowHeight);
 
             drawMonthDay(canvas, mYear, mMonth, dayNumber, x, y, startX, stopX, startY, stopY);
+            if (decorations != null && decorations.isDecorated(dayNumber)) {
+                drawDayDecorations(canvas, decorations, dayNumber, x, y, stopY);
+            }
 
             j++;
             if (j == mNumDays) {
@@ -530,6 +854,71 @@ public abstract class MonthView extends View {
         }
     }
 
+    /**
+     * Draws what the {@link DayDecorator} set for a day over the cell drawn by
+     * {@link #drawMonthDay}: the label at the bottom of the cell, the dot at the top right of the
+     * day number and the strike through across it. Override to draw them differently.
+     *
+     * @param canvas The canvas to draw on
+     * @param decorations The decorations of the month
+     * @param day The day of the month
+     * @param x The x position of the center of the day number
+     * @param y The baseline of the day number
+     * @param stopY The bottom boundary of the cell
+     */
+    protected void drawDayDecorations(Canvas canvas, DayDecorations decorations, int day, int x,
+            int y, int stopY) {
+        // Drawn over the selected circle in the color of the selected day number
+        mDayDecorationPaint.setColor(isSelectedDay(day)
+                ? mSelectedDayTextColor : decorations.getColor(day, mDayTextColor));
+        final String label = decorations.getLabel(day);
+        if (label != null) {
+            canvas.drawText(label, x, stopY - DAY_DECORATION_DOT_RADIUS, mDayDecorationPaint);
+        }
+        if (decorations.hasDot(day)) {
+            canvas.drawCircle(x + MINI_DAY_NUMBER_TEXT_SIZE * 0.75f, y - MINI_DAY_NUMBER_TEXT_SIZE,
+                    DAY_DECORATION_DOT_RADIUS, mDayDecorationPaint);
+        }
+        if (decorations.isStruckThrough(day)) {
+            // Through the middle of the digits, as wide as two of them
+            final float strikeY = y - MINI_DAY_NUMBER_TEXT_SIZE / 3f;
+            canvas.drawLine(x - MINI_DAY_NUMBER_TEXT_SIZE * 0.6f, strikeY,
+                    x + MINI_DAY_NUMBER_TEXT_SIZE * 0.6f, strikeY, mDayDecorationPaint);
+        }
+    }
+
+    /**
+     * Draws the range selected in this calendar, if any, as a band behind the day numbers with
+     * one rect per week row. The band runs from the middle of the first day of the range to the
+     * middle of the last one, so that it joins the circles drawn on both ends.
+     */
+    protected void drawRangeBand(Canvas canvas) {
+        if (mRangeDays == 0) {
+            return;
+        }
+        final float dayWidth = (mWidth - mEdgePadding * 2) / (float) mNumDays;
+        // Same vertical position as the selected day circle
+        int centerY = (mRowHeight + MINI_DAY_NUMBER_TEXT_SIZE) / 2 - DAY_SEPARATOR_WIDTH
+                + getMonthHeaderSize() - MINI_DAY_NUMBER_TEXT_SIZE / 3;
+        // The day shown in the first column of each row, which is < 1 in the first row
+        for (int rowStart = 1 - findDayOffset(); rowStart <= mNumCells; rowStart += mNumDays) {
+            final int first = Math.max(rowStart, 1);
+            final int last = Math.min(rowStart + mNumDays - 1, mNumCells);
+            final int rowDays = mRangeDays & ((-1 >>> (32 - (last - first + 1))) << (first - 1));
+            if (rowDays != 0) {
+                final int firstDay = Integer.numberOfTrailingZeros(rowDays) + 1;
+                final int lastDay = 32 - Integer.numberOfLeadingZeros(rowDays);
+                float left = mEdgePadding + (firstDay - rowStart) * dayWidth;
+                float right = mEdgePadding + (lastDay - rowStart + 1) * dayWidth;
+                if ((mRangeEndDays & dayBit(firstDay)) != 0) left += dayWidth / 2;
+                if ((mRangeEndDays & dayBit(lastDay)) != 0) right -= dayWidth / 2;
+                canvas.drawRect(left, centerY - DAY_SELECTED_CIRCLE_SIZE, right,
+                        centerY + DAY_SELECTED_CIRCLE_SIZE, mRangeBandPaint);
+            }
+            centerY += mRowHeight;
+        }
+    }
+
     /**
      * This method should draw the month day.  Implemented by sub-classes to allow customization.
      *
@@ -547,6 +936,54 @@ public abstract class MonthView extends View {
     public abstract void drawMonthDay(Canvas canvas, int year, int month, int day,
             int x, int y, int startX, int stopX, int startY, int stopY);
 
+    /**
+     * Draws the number of a day centered on x, using the day numbers preformatted for the current
+     * locale and their measured widths.
+     *
+     * @param canvas The canvas to draw on
+     * @param day The day of the month
+     * @param x The x position of the center of the number
+     * @param y The baseline of the number
+     * @param paint The paint to draw with. Left aligned paints, such as the ones returned by
+     *            {@link #getDayNumberPaint(int, boolean)}, spare measuring the text on every draw.
+     */
+    protected void drawDayNumber(Canvas canvas, int day, int x, int y, Paint paint) {
+        final String[] dayNumbers = DateLabelCache.getDayNumbers();
+        if (dayNumbers != mDayNumbers) {
+            mDayNumbers = dayNumbers;
+            mMeasuredTextSizes[0] = -1;
+            mMeasuredTextSizes[1] = -1;
+        }
+        final Align align = paint.getTextAlign();
+        if (align == Align.CENTER) {
+            canvas.drawText(dayNumbers[day], x, y, paint);
+            return;
+        }
+        // Place the text from its known width so it isn't measured again to center it
+        final float halfWidth = getDayNumberWidths(paint)[day] / 2;
+        canvas.drawText(dayNumbers[day], align == Align.LEFT ? x - halfWidth : x + halfWidth, y,
+                paint);
+    }
+
+    private float[] getDayNumberWidths(Paint paint) {
+        final Typeface typeface = paint.getTypeface();
+        final float textSize = paint.getTextSize();
+        for (int slot = 0; slot < mDayNumberWidths.length; slot++) {
+            if (mMeasuredTypefaces[slot] == typeface && mMeasuredTextSizes[slot] == textSize) {
+                return mDayNumberWidths[slot];
+            }
+        }
+        final int slot = mNextMeasuredSlot;
+        mNextMeasuredSlot = (slot + 1) % mDayNumberWidths.length;
+        final float[] widths = mDayNumberWidths[slot];
+        for (int day = 1; day < widths.length; day++) {
+            widths[day] = paint.measureText(mDayNumbers[day]);
+        }
+        mMeasuredTypefaces[slot] = typeface;
+        mMeasuredTextSizes[slot] = textSize;
+        return widths;
+    }
+
     protected int findDayOffset() {
         return (mDayOfWeekStart < mWeekStart ? (mDayOfWeekStart + mNumDays) : mDayOfWeekStart)
                 - mWeekStart;
@@ -584,9 +1021,7 @@ public abstract class MonthView extends View {
         int row = (int) (y - getMonthHeaderSize()) / mRowHeight;
         int column = (int) ((x - dayStart) * mNumDays / (mWidth - dayStart - mEdgePadding));
 
-        int day = column - findDayOffset() + 1;
-        day += row * mNumDays;
-        return day;
+        return MonthLayout.dayAt(row, column, findDayOffset());
     }
 
     /**
@@ -599,13 +1034,14 @@ public abstract class MonthView extends View {
      */
     private void onDayClick(int day) {
         // If the min / max date are set, only process the click if it's a valid selection.
-        if (isOutOfRange(mYear, mMonth, day)) {
+        if (isDisabledDay(day)) {
             return;
         }
+        final int epochDay = mFirstEpochDay + day - 1;
 
 
         if (mOnDayClickListener != null) {
-            mOnDayClickListener.onDayClick(this, new CalendarDay(mYear, mMonth, day));
+            mOnDayClickListener.onDayClick(this, epochDay);
         }
 
         // This is a no-op if accessibility is turned off.
@@ -618,88 +1054,18 @@ public abstract class MonthView extends View {
      * Integer.MAX_VALUE.
      */
     protected boolean isOutOfRange(int year, int month, int day) {
-        if (mController.getSelectableDays() != null) {
-            return !isSelectable(year, month, day);
-        }
-
-        if (isBeforeMin(year, month, day)) {
-            return true;
-        }
-        else if (isAfterMax(year, month, day)) {
-            return true;
-        }
-
-        return false;
+        return isOutOfRange(EpochDay.of(year, month, day));
     }
 
-    private boolean isSelectable(int year, int month, int day) {
-        Calendar[] selectableDays = mController.getSelectableDays();
-        for (Calendar c : selectableDays) {
-            if(year < c.get(Calendar.YEAR)) break;
-            if(year > c.get(Calendar.YEAR)) continue;
-            if(month < c.get(Calendar.MONTH)) break;
-            if(month > c.get(Calendar.MONTH)) continue;
-            if(day < c.get(Calendar.DAY_OF_MONTH)) break;
-            if(day > c.get(Calendar.DAY_OF_MONTH)) continue;
-            return true;
-        }
-        return false;
-    }
-
-    private boolean isBeforeMin(int year, int month, int day) {
-        if (mController == null) {
-            return false;
-        }
-        Calendar minDate = mController.getMinDate();
-        if (minDate == null) {
-            return false;
-        }
-
-        if (year < minDate.get(Calendar.YEAR)) {
-            return true;
-        } else if (year > minDate.get(Calendar.YEAR)) {
-            return false;
-        }
-
-        if (month < minDate.get(Calendar.MONTH)) {
-            return true;
-        } else if (month > minDate.get(Calendar.MONTH)) {
-            return false;
-        }
-
-        if (day < minDate.get(Calendar.DAY_OF_MONTH)) {
-            return true;
-        } else {
-            return false;
-        }
-    }
-
-    private boolean isAfterMax(int year, int month, int day) {
+    /**
+     * Same as {@link #isOutOfRange(int, int, int)} for a day given as an {@link EpochDay}.
+     */
+    protected boolean isOutOfRange(int epochDay) {
         if (mController == null) {
             return false;
         }
-        Calendar maxDate = mController.getMaxDate();
-        if (maxDate == null) {
-            return false;
-        }
-
-        if (year > maxDate.get(Calendar.YEAR)) {
-            return true;
-        } else if (year < maxDate.get(Calendar.YEAR)) {
-            return false;
-        }
-
-        if (month > maxDate.get(Calendar.MONTH)) {
-            return true;
-        } else if (month < maxDate.get(Calendar.MONTH)) {
-            return false;
-        }
-
-        if (day > maxDate.get(Calendar.DAY_OF_MONTH)) {
-            return true;
-        } else {
-            return false;
-        }
+        return DayConstraints.isOutOfRange(epochDay, mController.getMinEpochDay(),
+                mController.getMaxEpochDay(), mController.getSelectableDaySet());
     }
 
     /**
@@ -709,15 +1075,15 @@ public abstract class MonthView extends View {
      * @return true if the given date should be highlighted
      */
     protected boolean isHighlighted(int year, int month, int day) {
-        Calendar[] highlightedDays = mController.getHighlightedDays();
-        if(highlightedDays == null) return false;
-        for (Calendar c : highlightedDays) {
-            if(year != c.get(Calendar.YEAR)) continue;
-            if(month != c.get(Calendar.MONTH)) continue;
-            if(day != c.get(Calendar.DAY_OF_MONTH)) continue;
-            return true;
-        }
-        return false;
+        return isHighlighted(EpochDay.of(year, month, day));
+    }
+
+    /**
+     * Same as {@link #isHighlighted(int, int, int)} for a day given as an {@link EpochDay}.
+     */
+    protected boolean isHighlighted(int epochDay) {
+        return DayConstraints.isHighlighted(epochDay, mController.getHighlightedRangeStart(),
+                mController.getHighlightedRangeEnd(), mController.getHighlightedDaySet());
     }
 
     /**
@@ -877,6 +1243,6 @@ public abstract class MonthView extends View {
      * Handles callbacks when the user clicks on a time object.
      */
     public interface OnDayClickListener {
-        void onDayClick(MonthView view, CalendarDay day);
+        void onDayClick(MonthView view, int epochDay);
     }
 }
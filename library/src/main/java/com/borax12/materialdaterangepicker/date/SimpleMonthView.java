@@ -18,7 +18,7 @@ package com.borax12.materialdaterangepicker.date;
 
 import android.content.Context;
 import android.graphics.Canvas;
-import android.graphics.Typeface;
+import android.graphics.Paint;
 import android.util.AttributeSet;
 
 public class SimpleMonthView extends com.borax12.materialdaterangepicker.date.MonthView {
@@ -30,31 +30,18 @@ public class SimpleMonthView extends com.borax12.materialdaterangepicker.date.Mo
     @Override
     public void drawMonthDay(Canvas canvas, int year, int month, int day,
             int x, int y, int startX, int stopX, int startY, int stopY) {
-        if (mSelectedDay == day) {
+        final int heatmapLevel = getHeatmapLevel(day);
+        if (heatmapLevel != DayHeatmap.NO_LEVEL) {
+            canvas.drawRect(startX, startY, stopX, stopY, getHeatmapPaint(heatmapLevel));
+        }
+        if (isSelectedDay(day)) {
             canvas.drawCircle(x , y - (MINI_DAY_NUMBER_TEXT_SIZE / 3), DAY_SELECTED_CIRCLE_SIZE,
                     mSelectedCirclePaint);
         }
 
-        if(isHighlighted(year, month, day)) {
-            mMonthNumPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
-        }
-        else {
-            mMonthNumPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.NORMAL));
-        }
-
-        // If we have a mindate or maxdate, gray out the day number if it's outside the range.
-        if (isOutOfRange(year, month, day)) {
-            mMonthNumPaint.setColor(mDisabledDayTextColor);
-        }
-        else if (mSelectedDay == day) {
-            mMonthNumPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
-            mMonthNumPaint.setColor(mSelectedDayTextColor);
-        } else if (mHasToday && mToday == day) {
-            mMonthNumPaint.setColor(mTodayNumberColor);
-        } else {
-            mMonthNumPaint.setColor(isHighlighted(year, month, day) ? mHighlightedDayTextColor : mDayTextColor);
-        }
-
-        canvas.drawText(String.format("%d", day), x, y, mMonthNumPaint);
+        final Paint paint = isAvailabilityPending() && !isOutOfRangeDay(day)
+                ? getPendingDayNumberPaint()
+                : getDayNumberPaint(getDayState(day), isHighlightedDay(day));
+        drawDayNumber(canvas, day, x, y, paint);
     }
 }
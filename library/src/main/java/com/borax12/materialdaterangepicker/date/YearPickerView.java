@@ -47,6 +47,8 @@ public class YearPickerView extends ListView implements OnItemClickListener, OnD
     private int mChildSize;
     private com.borax12.materialdaterangepicker.date.TextViewWithCircularIndicator mSelectedView;
     private int mAccentColor;
+    // Whether the date changed while this view was hidden
+    private boolean mDateChangedWhileHidden;
 
     /**
      * @param context
@@ -73,7 +75,7 @@ public class YearPickerView extends ListView implements OnItemClickListener, OnD
     private void init(Context context) {
         ArrayList<String> years = new ArrayList<String>();
         for (int year = mController.getMinYear(); year <= mController.getMaxYear(); year++) {
-            years.add(String.format("%d", year));
+            years.add(DateLabelCache.getYearLabel(year));
         }
         mAdapter = new YearAdapter(context, R.layout.range_year_label_text_view, years);
         setAdapter(mAdapter);
@@ -119,7 +121,7 @@ public class YearPickerView extends ListView implements OnItemClickListener, OnD
             v.setAccentColor(mAccentColor);
             v.requestLayout();
             int year = getYearFromTextView(v);
-            boolean selected = mController.getSelectedDay().year == year;
+            boolean selected = EpochDay.year(mController.getSelectedEpochDay()) == year;
             v.drawIndicator(selected);
             if (selected) {
                 mSelectedView = v;
@@ -153,8 +155,23 @@ public class YearPickerView extends ListView implements OnItemClickListener, OnD
 
     @Override
     public void onDateChanged() {
+        if (getWindowToken() != null && !isShown()) {
+            // Catch up once shown instead of rebinding a list nobody sees
+            mDateChangedWhileHidden = true;
+            return;
+        }
+        mDateChangedWhileHidden = false;
         mAdapter.notifyDataSetChanged();
-        postSetSelectionCentered(mController.getSelectedDay().year - mController.getMinYear());
+        postSetSelectionCentered(EpochDay.year(mController.getSelectedEpochDay())
+                - mController.getMinYear());
+    }
+
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        if (mDateChangedWhileHidden && isShown()) {
+            onDateChanged();
+        }
     }
 
     @Override
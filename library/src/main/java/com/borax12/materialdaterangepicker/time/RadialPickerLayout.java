@@ -39,6 +39,7 @@ import android.widget.FrameLayout;
 
 import androidx.annotation.NonNull;
 
+import com.borax12.materialdaterangepicker.PickerTrace;
 import com.borax12.materialdaterangepicker.R;
 
 import java.util.Calendar;
@@ -55,9 +56,8 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
     private final int TOUCH_SLOP;
     private final int TAP_TIMEOUT;
 
-    private static final int VISIBLE_DEGREES_STEP_SIZE = 30;
-    private static final int HOUR_VALUE_TO_DEGREES_STEP_SIZE = VISIBLE_DEGREES_STEP_SIZE;
-    private static final int MINUTE_VALUE_TO_DEGREES_STEP_SIZE = 6;
+    private static final int HOUR_VALUE_TO_DEGREES_STEP_SIZE = ClockMath.HOUR_VALUE_TO_DEGREES_STEP_SIZE;
+    private static final int MINUTE_VALUE_TO_DEGREES_STEP_SIZE = ClockMath.MINUTE_VALUE_TO_DEGREES_STEP_SIZE;
     private static final int HOUR_INDEX = TimePickerDialog.HOUR_INDEX;
     private static final int MINUTE_INDEX = TimePickerDialog.MINUTE_INDEX;
     private static final int AMPM_INDEX = TimePickerDialog.AMPM_INDEX;
@@ -84,7 +84,6 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
     private RadialSelectorView mMinuteRadialSelectorView;
     private View mGrayBox;
 
-    private int[] mSnapPrefer30sMap;
     private boolean mInputEnabled;
     private int mIsTouchingAmOrPm = -1;
     private boolean mDoingMove;
@@ -126,9 +125,6 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
         mMinuteRadialTextsView = new RadialTextsView(context);
         addView(mMinuteRadialTextsView);
 
-        // Prepare mapping to snap touchable degrees to selectable degrees.
-        preparePrefer30sMap();
-
         mLastValueSelected = -1;
 
         mInputEnabled = true;
@@ -337,106 +333,6 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
         setValueForItem(AMPM_INDEX, amOrPm);
     }
 
-    /**
-     * Split up the 360 degrees of the circle among the 60 selectable values. Assigns a larger
-     * selectable area to each of the 12 visible values, such that the ratio of space apportioned
-     * to a visible value : space apportioned to a non-visible value will be 14 : 4.
-     * E.g. the output of 30 degrees should have a higher range of input associated with it than
-     * the output of 24 degrees, because 30 degrees corresponds to a visible number on the clock
-     * circle (5 on the minutes, 1 or 13 on the hours).
-     */
-    private void preparePrefer30sMap() {
-        // We'll split up the visible output and the non-visible output such that each visible
-        // output will correspond to a range of 14 associated input degrees, and each non-visible
-        // output will correspond to a range of 4 associate input degrees, so visible numbers
-        // are more than 3 times easier to get than non-visible numbers:
-        // {354-359,0-7}:0, {8-11}:6, {12-15}:12, {16-19}:18, {20-23}:24, {24-37}:30, etc.
-        //
-        // If an output of 30 degrees should correspond to a range of 14 associated degrees, then
-        // we'll need any input between 24 - 37 to snap to 30. Working out from there, 20-23 should
-        // snap to 24, while 38-41 should snap to 36. This is somewhat counter-intuitive, that you
-        // can be touching 36 degrees but have the selection snapped to 30 degrees; however, this
-        // inconsistency isn't noticeable at such fine-grained degrees, and it affords us the
-        // ability to aggressively prefer the visible values by a factor of more than 3:1, which
-        // greatly contributes to the selectability of these values.
-
-        // Our input will be 0 through 360.
-        mSnapPrefer30sMap = new int[361];
-
-        // The first output is 0, and each following output will increment by 6 {0, 6, 12, ...}.
-        int snappedOutputDegrees = 0;
-        // Count of how many inputs we've designated to the specified output.
-        int count = 1;
-        // How many input we expect for a specified output. This will be 14 for output divisible
-        // by 30, and 4 for the remaining output. We'll special case the outputs of 0 and 360, so
-        // the caller can decide which they need.
-        int expectedCount = 8;
-        // Iterate through the input.
-        for (int degrees = 0; degrees < 361; degrees++) {
-            // Save the input-output mapping.
-            mSnapPrefer30sMap[degrees] = snappedOutputDegrees;
-            // If this is the last input for the specified output, calculate the next output and
-            // the next expected count.
-            if (count == expectedCount) {
-                snappedOutputDegrees += 6;
-                if (snappedOutputDegrees == 360) {
-                    expectedCount = 7;
-                } else if (snappedOutputDegrees % 30 == 0) {
-                    expectedCount = 14;
-                } else {
-                    expectedCount = 4;
-                }
-                count = 1;
-            } else {
-                count++;
-            }
-        }
-    }
-
-    /**
-     * Returns mapping of any input degrees (0 to 360) to one of 60 selectable output degrees,
-     * where the degrees corresponding to visible numbers (i.e. those divisible by 30) will be
-     * weighted heavier than the degrees corresponding to non-visible numbers.
-     * See {@link #preparePrefer30sMap()} documentation for the rationale and generation of the
-     * mapping.
-     */
-    private int snapPrefer30s(int degrees) {
-        if (mSnapPrefer30sMap == null) {
-            return -1;
-        }
-        return mSnapPrefer30sMap[degrees];
-    }
-
-    /**
-     * Returns mapping of any input degrees (0 to 360) to one of 12 visible output degrees (all
-     * multiples of 30), where the input will be "snapped" to the closest visible degrees.
-     * @param degrees The input degrees
-     * @param forceHigherOrLower The output may be forced to either the higher or lower step, or may
-     * be allowed to snap to whichever is closer. Use 1 to force strictly higher, -1 to force
-     * strictly lower, and 0 to snap to the closer one.
-     * @return output degrees, will be a multiple of 30
-     */
-    private static int snapOnly30s(int degrees, int forceHigherOrLower) {
-        int stepSize = HOUR_VALUE_TO_DEGREES_STEP_SIZE;
-        int floor = (degrees / stepSize) * stepSize;
-        int ceiling = floor + stepSize;
-        if (forceHigherOrLower == 1) {
-            degrees = ceiling;
-        } else if (forceHigherOrLower == -1) {
-            if (degrees == floor) {
-                floor -= stepSize;
-            }
-            degrees = floor;
-        } else {
-            if ((degrees - floor) < (ceiling - degrees)) {
-                degrees = floor;
-            } else {
-                degrees = ceiling;
-            }
-        }
-        return degrees;
-    }
-
     /**
      * For the currently showing view (either hours or minutes), re-calculate the position for the
      * selector, and redraw it at that position. The input degrees will be snapped to a selectable
@@ -460,9 +356,9 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
         int stepSize;
         boolean allowFineGrained = !forceToVisibleValue && (currentShowing == MINUTE_INDEX);
         if (allowFineGrained) {
-            degrees = snapPrefer30s(degrees);
+            degrees = ClockMath.snapPrefer30s(degrees);
         } else {
-            degrees = snapOnly30s(degrees, 0);
+            degrees = ClockMath.snapOnly30s(degrees, 0);
         }
 
         RadialSelectorView radialSelectorView;
@@ -592,6 +488,15 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
 
     @Override
     public boolean onTouch(View v, MotionEvent event) {
+        PickerTrace.beginSection("RadialPickerLayout#onTouch");
+        try {
+            return handleTouch(event);
+        } finally {
+            PickerTrace.endSection();
+        }
+    }
+
+    private boolean handleTouch(MotionEvent event) {
         final float eventX = event.getX();
         final float eventY = event.getY();
         int degrees;
@@ -838,7 +743,7 @@ public class RadialPickerLayout extends FrameLayout implements OnTouchListener {
             }
 
             int degrees = value * stepSize;
-            degrees = snapOnly30s(degrees, changeMultiplier);
+            degrees = ClockMath.snapOnly30s(degrees, changeMultiplier);
             value = degrees / stepSize;
             int maxValue = 0;
             int minValue = 0;
@@ -203,9 +203,7 @@ public class RadialSelectorView extends View {
             return -1;
         }
 
-        double hypotenuse = Math.sqrt(
-                (pointY - mYCenter)*(pointY - mYCenter) +
-                (pointX - mXCenter)*(pointX - mXCenter));
+        double hypotenuse = ClockMath.distanceFromCenter(pointX, pointY, mXCenter, mYCenter);
         // Check if we're outside the range
         if (mHasInnerCircle) {
             if (forceLegal) {
@@ -254,23 +252,7 @@ public class RadialSelectorView extends View {
         }
 
 
-        float opposite = Math.abs(pointY - mYCenter);
-        double radians = Math.asin(opposite / hypotenuse);
-        int degrees = (int) (radians * 180 / Math.PI);
-
-        // Now we have to translate to the correct quadrant.
-        boolean rightSide = (pointX > mXCenter);
-        boolean topSide = (pointY < mYCenter);
-        if (rightSide && topSide) {
-            degrees = 90 - degrees;
-        } else if (rightSide && !topSide) {
-            degrees = 90 + degrees;
-        } else if (!rightSide && !topSide) {
-            degrees = 270 - degrees;
-        } else if (!rightSide && topSide) {
-            degrees = 270 + degrees;
-        }
-        return degrees;
+        return ClockMath.degreesFromCoords(pointX, pointY, mXCenter, mYCenter, hypotenuse);
     }
 
     @Override
@@ -51,6 +51,9 @@ public class RadialTextsView extends View {
     private Typeface mTypefaceRegular;
     private String[] mTexts;
     private String[] mInnerTexts;
+    // The values of the texts, compared to the selection on every draw
+    private int[] mTextValues;
+    private int[] mInnerTextValues;
     private boolean mIs24HourMode;
     private boolean mHasInnerCircle;
     private float mCircleRadiusMultiplier;
@@ -108,6 +111,8 @@ public class RadialTextsView extends View {
 
         mTexts = texts;
         mInnerTexts = innerTexts;
+        mTextValues = parseValues(texts);
+        mInnerTextValues = innerTexts != null ? parseValues(innerTexts) : null;
         mIs24HourMode = is24HourMode;
         mHasInnerCircle = (innerTexts != null);
 
@@ -239,9 +244,10 @@ public class RadialTextsView extends View {
         }
 
         // Draw the texts in the pre-calculated positions.
-        drawTexts(canvas, mTextSize, mTypefaceLight, mTexts, mTextGridWidths, mTextGridHeights);
+        drawTexts(canvas, mTextSize, mTypefaceLight, mTexts, mTextValues, mTextGridWidths,
+                mTextGridHeights);
         if (mHasInnerCircle) {
-            drawTexts(canvas, mInnerTextSize, mTypefaceRegular, mInnerTexts,
+            drawTexts(canvas, mInnerTextSize, mTypefaceRegular, mInnerTexts, mInnerTextValues,
                     mInnerTextGridWidths, mInnerTextGridHeights);
         }
     }
@@ -282,25 +288,36 @@ public class RadialTextsView extends View {
         textGridWidths[6] = xCenter + offset1;
     }
 
+    /**
+     * Parse the values of the texts once, so that drawing doesn't have to.
+     */
+    private static int[] parseValues(String[] texts) {
+        int[] values = new int[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            values[i] = Integer.parseInt(texts[i]);
+        }
+        return values;
+    }
+
     /**
      * Draw the 12 text values at the positions specified by the textGrid parameters.
      */
     private void drawTexts(Canvas canvas, float textSize, Typeface typeface, String[] texts,
-            float[] textGridWidths, float[] textGridHeights) {
+            int[] values, float[] textGridWidths, float[] textGridHeights) {
         mPaint.setTextSize(textSize);
         mPaint.setTypeface(typeface);
-        canvas.drawText(texts[0], textGridWidths[3], textGridHeights[0], Integer.parseInt(texts[0]) == selection ? mSelectedPaint : mPaint);
-        canvas.drawText(texts[1], textGridWidths[4], textGridHeights[1], Integer.parseInt(texts[1]) == selection ? mSelectedPaint : mPaint);
-        canvas.drawText(texts[2], textGridWidths[5], textGridHeights[2], Integer.parseInt(texts[2]) == selection ? mSelectedPaint : mPaint);
-        canvas.drawText(texts[3], textGridWidths[6], textGridHeights[3], Integer.parseInt(texts[3]) == selection ? mSelectedPaint : mPaint);
-        canvas.drawText(texts[4], textGridWidths[5], textGridHeights[4], Integer.parseInt(texts[4]) == selection ? mSelectedPaint : mPaint);
-        canvas.drawText(texts[5], textGridWidths[4], textGridHeights[5], Integer.parseInt(texts[5]) == selection ? mSelectedPaint : mPaint);
-        canvas.drawText(texts[6], textGridWidths[3], textGridHeights[6], Integer.parseInt(texts[6]) == selection ? mSelectedPaint : mPaint);
-        canvas.drawText(texts[7], textGridWidths[2], textGridHeights[5], Integer.parseInt(texts[7]) == selection ? mSelectedPaint : mPaint);
-        canvas.drawText(texts[8], textGridWidths[1], textGridHeights[4], Integer.parseInt(texts[8]) == selection ? mSelectedPaint : mPaint);
-        canvas.drawText(texts[9], textGridWidths[0], textGridHeights[3], Integer.parseInt(texts[9]) == selection ? mSelectedPaint : mPaint);
-        canvas.drawText(texts[10], textGridWidths[1], textGridHeights[2], Integer.parseInt(texts[10])  == selection ? mSelectedPaint : mPaint);
-        canvas.drawText(texts[11], textGridWidths[2], textGridHeights[1], Integer.parseInt(texts[11])  == selection ? mSelectedPaint : mPaint);
+        canvas.drawText(texts[0], textGridWidths[3], textGridHeights[0], values[0] == selection ? mSelectedPaint : mPaint);
+        canvas.drawText(texts[1], textGridWidths[4], textGridHeights[1], values[1] == selection ? mSelectedPaint : mPaint);
+        canvas.drawText(texts[2], textGridWidths[5], textGridHeights[2], values[2] == selection ? mSelectedPaint : mPaint);
+        canvas.drawText(texts[3], textGridWidths[6], textGridHeights[3], values[3] == selection ? mSelectedPaint : mPaint);
+        canvas.drawText(texts[4], textGridWidths[5], textGridHeights[4], values[4] == selection ? mSelectedPaint : mPaint);
+        canvas.drawText(texts[5], textGridWidths[4], textGridHeights[5], values[5] == selection ? mSelectedPaint : mPaint);
+        canvas.drawText(texts[6], textGridWidths[3], textGridHeights[6], values[6] == selection ? mSelectedPaint : mPaint);
+        canvas.drawText(texts[7], textGridWidths[2], textGridHeights[5], values[7] == selection ? mSelectedPaint : mPaint);
+        canvas.drawText(texts[8], textGridWidths[1], textGridHeights[4], values[8] == selection ? mSelectedPaint : mPaint);
+        canvas.drawText(texts[9], textGridWidths[0], textGridHeights[3], values[9] == selection ? mSelectedPaint : mPaint);
+        canvas.drawText(texts[10], textGridWidths[1], textGridHeights[2], values[10] == selection ? mSelectedPaint : mPaint);
+        canvas.drawText(texts[11], textGridWidths[2], textGridHeights[1], values[11] == selection ? mSelectedPaint : mPaint);
     }
 
     /**
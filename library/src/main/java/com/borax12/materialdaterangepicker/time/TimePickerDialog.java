@@ -19,9 +19,12 @@ package com.borax12.materialdaterangepicker.time;
 import android.animation.ObjectAnimator;
 import android.app.ActionBar.LayoutParams;
 import android.app.DialogFragment;
+import android.content.Context;
 import android.content.DialogInterface;
 import android.content.res.Resources;
+import android.os.AsyncTask;
 import android.os.Bundle;
+import android.os.Handler;
 import android.text.TextUtils;
 import android.util.Log;
 import android.view.KeyCharacterMap;
@@ -40,6 +43,10 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 
 import com.borax12.materialdaterangepicker.HapticFeedbackController;
+import com.borax12.materialdaterangepicker.PickerMetrics;
+import com.borax12.materialdaterangepicker.PickerMetricsRecorder;
+import com.borax12.materialdaterangepicker.PickerTrace;
+import com.borax12.materialdaterangepicker.PrewarmedLayout;
 import com.borax12.materialdaterangepicker.R;
 import com.borax12.materialdaterangepicker.TypefaceHelper;
 import com.borax12.materialdaterangepicker.Utils;
@@ -124,10 +131,21 @@ public class TimePickerDialog extends DialogFragment implements OnValueSelectedL
     private String mDeletedKeyFormat;
     private boolean mInKbMode;
     private ArrayList<Integer> mTypedTimes;
-    private Node mLegalTimesTree;
+    private LegalTimesTree mLegalTimesTree;
     private int mAmKeyCode;
     private int mPmKeyCode;
 
+    // Built ahead of time by prewarm(), see generateLegalTimesTree()
+    private PrewarmedLayout mPrewarmedLayout;
+    private LegalTimesTree mPrewarmedLegalTimesTree;
+    private boolean mPrewarmedIs24HourMode;
+    // The texts the prewarmed tree was built for, indexed by AM and PM
+    private String[] mPrewarmedAmPmTexts;
+    private int[] mPrewarmedAmPmKeyCodes;
+
+    // Null unless setPickerMetrics() was called
+    private PickerMetricsRecorder mMetricsRecorder;
+
     // Accessibility strings.
     private String mHourPickerDescription;
     private String mSelectHours;
@@ -279,6 +297,51 @@ public class TimePickerDialog extends DialogFragment implements OnValueSelectedL
         mInKbMode = false;
     }
 
+    /**
+     * Sets the callback receiving the latency and cache statistics of the picker. Must be called
+     * before the dialog is shown.
+     * @param metrics The callback, or null to stop collecting metrics
+     */
+    @SuppressWarnings("unused")
+    public void setPickerMetrics(PickerMetrics metrics) {
+        if (mMetricsRecorder != null) mMetricsRecorder.stopCacheStats();
+        mMetricsRecorder = metrics != null ? new PickerMetricsRecorder(metrics) : null;
+    }
+
+    /**
+     * Does the work of showing the dialog ahead of time: the dialog layout is inflated in the
+     * background where its views allow it, and the typeface and the tree of legal keyboard input
+     * are built on a background thread. Call it from the main thread once the dialog is
+     * initialized, and show the dialog from the same activity for the inflated layout to be used.
+     * @param context The activity the dialog will be shown from
+     */
+    @SuppressWarnings("unused")
+    public void prewarm(Context context) {
+        final Context appContext = context.getApplicationContext();
+        final boolean is24HourMode = mIs24HourMode;
+        final Handler handler = new Handler();
+        AsyncTask.THREAD_POOL_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                TypefaceHelper.get(appContext, "Roboto-Medium");
+                final String[] amPmTexts = new DateFormatSymbols().getAmPmStrings();
+                final int[] amPmKeyCodes = findAmPmKeyCodes(amPmTexts[0], amPmTexts[1]);
+                final LegalTimesTree legalTimesTree = LegalTimesTree.build(is24HourMode,
+                        amPmKeyCodes[AM], amPmKeyCodes[PM]);
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        mPrewarmedLegalTimesTree = legalTimesTree;
+                        mPrewarmedIs24HourMode = is24HourMode;
+                        mPrewarmedAmPmTexts = amPmTexts;
+                        mPrewarmedAmPmKeyCodes = amPmKeyCodes;
+                    }
+                });
+            }
+        });
+        mPrewarmedLayout = new PrewarmedLayout(context, R.layout.range_time_picker_dialog);
+    }
+
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -301,9 +364,16 @@ public class TimePickerDialog extends DialogFragment implements OnValueSelectedL
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container,
             Bundle savedInstanceState) {
+        PickerTrace.beginSection("TimePickerDialog#onCreateView");
+        final long createViewStart = System.nanoTime();
+        if (mMetricsRecorder != null) mMetricsRecorder.startCacheStats();
         getDialog().getWindow().requestFeature(Window.FEATURE_NO_TITLE);
 
-        View view = inflater.inflate(R.layout.range_time_picker_dialog, null);
+        View view = mPrewarmedLayout != null ? mPrewarmedLayout.take(getActivity()) : null;
+        mPrewarmedLayout = null;
+        if (view == null) {
+            view = inflater.inflate(R.layout.range_time_picker_dialog, null);
+        }
         KeyboardListener keyboardListener = new KeyboardListener();
         view.findViewById(R.id.range_time_picker_dialog).setOnKeyListener(keyboardListener);
 
@@ -564,6 +634,8 @@ public class TimePickerDialog extends DialogFragment implements OnValueSelectedL
                 }
             }
         });
+        if (mMetricsRecorder != null) mMetricsRecorder.reportFirstDraw(view, createViewStart);
+        PickerTrace.endSection();
         return view;
     }
 
@@ -590,6 +662,7 @@ public class TimePickerDialog extends DialogFragment implements OnValueSelectedL
     public void onDismiss(DialogInterface dialog) {
         super.onDismiss(dialog);
         if(mOnDismissListener != null) mOnDismissListener.onDismiss(dialog);
+        if (mMetricsRecorder != null) mMetricsRecorder.reportCacheStats();
     }
 
     public void tryVibrate() {
@@ -654,6 +727,9 @@ public class TimePickerDialog extends DialogFragment implements OnValueSelectedL
      */
     @Override
     public void onValueSelected(int pickerIndex, int newValue, boolean autoAdvance) {
+        if (mMetricsRecorder != null && pickerIndex != ENABLE_PICKER_INDEX && mTimePicker != null) {
+            mMetricsRecorder.reportSelectionRendered(mTimePicker, System.nanoTime());
+        }
         if (pickerIndex == HOUR_INDEX) {
             setHour(newValue, false);
             String announcement = String.format("%d", newValue);
@@ -938,14 +1014,7 @@ public class TimePickerDialog extends DialogFragment implements OnValueSelectedL
      * or may become legal as more keys are typed (excluding backspace).
      */
     private boolean isTypedTimeLegalSoFar() {
-        Node node = mLegalTimesTree;
-        for (int keyCode : mTypedTimes) {
-            node = node.canReach(keyCode);
-            if (node == null) {
-                return false;
-            }
-        }
-        return true;
+        return mLegalTimesTree.isLegalSoFar(mTypedTimes);
     }
 
     /**
@@ -1145,25 +1214,9 @@ public class TimePickerDialog extends DialogFragment implements OnValueSelectedL
     private int getAmOrPmKeyCode(int amOrPm) {
         // Cache the codes.
         if (mAmKeyCode == -1 || mPmKeyCode == -1) {
-            // Find the first character in the AM/PM text that is unique.
-            KeyCharacterMap kcm = KeyCharacterMap.load(KeyCharacterMap.VIRTUAL_KEYBOARD);
-            char amChar;
-            char pmChar;
-            for (int i = 0; i < Math.max(mAmText.length(), mPmText.length()); i++) {
-                amChar = mAmText.toLowerCase(Locale.getDefault()).charAt(i);
-                pmChar = mPmText.toLowerCase(Locale.getDefault()).charAt(i);
-                if (amChar != pmChar) {
-                    KeyEvent[] events = kcm.getEvents(new char[]{amChar, pmChar});
-                    // There should be 4 events: a down and up for both AM and PM.
-                    if (events != null && events.length == 4) {
-                        mAmKeyCode = events[0].getKeyCode();
-                        mPmKeyCode = events[2].getKeyCode();
-                    } else {
-                        Log.e(TAG, "Unable to find keycodes for AM and PM.");
-                    }
-                    break;
-                }
-            }
+            int[] amPmKeyCodes = findAmPmKeyCodes(mAmText, mPmText);
+            mAmKeyCode = amPmKeyCodes[AM];
+            mPmKeyCode = amPmKeyCodes[PM];
         }
         if (amOrPm == AM) {
             return mAmKeyCode;
@@ -1175,174 +1228,49 @@ public class TimePickerDialog extends DialogFragment implements OnValueSelectedL
     }
 
     /**
-     * Create a tree for deciding what keys can legally be typed.
+     * Find the keycodes typing the first character that differs between the AM and PM texts.
+     * @return The keycodes indexed by {@link #AM} and {@link #PM}, -1 if none was found
      */
-    private void generateLegalTimesTree() {
-        // Create a quick cache of numbers to their keycodes.
-        int k0 = KeyEvent.KEYCODE_0;
-        int k1 = KeyEvent.KEYCODE_1;
-        int k2 = KeyEvent.KEYCODE_2;
-        int k3 = KeyEvent.KEYCODE_3;
-        int k4 = KeyEvent.KEYCODE_4;
-        int k5 = KeyEvent.KEYCODE_5;
-        int k6 = KeyEvent.KEYCODE_6;
-        int k7 = KeyEvent.KEYCODE_7;
-        int k8 = KeyEvent.KEYCODE_8;
-        int k9 = KeyEvent.KEYCODE_9;
-
-        // The root of the tree doesn't contain any numbers.
-        mLegalTimesTree = new Node();
-        if (mIs24HourMode) {
-            // We'll be re-using these nodes, so we'll save them.
-            Node minuteFirstDigit = new Node(k0, k1, k2, k3, k4, k5);
-            Node minuteSecondDigit = new Node(k0, k1, k2, k3, k4, k5, k6, k7, k8, k9);
-            // The first digit must be followed by the second digit.
-            minuteFirstDigit.addChild(minuteSecondDigit);
-
-            // The first digit may be 0-1.
-            Node firstDigit = new Node(k0, k1);
-            mLegalTimesTree.addChild(firstDigit);
-
-            // When the first digit is 0-1, the second digit may be 0-5.
-            Node secondDigit = new Node(k0, k1, k2, k3, k4, k5);
-            firstDigit.addChild(secondDigit);
-            // We may now be followed by the first minute digit. E.g. 00:09, 15:58.
-            secondDigit.addChild(minuteFirstDigit);
-
-            // When the first digit is 0-1, and the second digit is 0-5, the third digit may be 6-9.
-            Node thirdDigit = new Node(k6, k7, k8, k9);
-            // The time must now be finished. E.g. 0:55, 1:08.
-            secondDigit.addChild(thirdDigit);
-
-            // When the first digit is 0-1, the second digit may be 6-9.
-            secondDigit = new Node(k6, k7, k8, k9);
-            firstDigit.addChild(secondDigit);
-            // We must now be followed by the first minute digit. E.g. 06:50, 18:20.
-            secondDigit.addChild(minuteFirstDigit);
-
-            // The first digit may be 2.
-            firstDigit = new Node(k2);
-            mLegalTimesTree.addChild(firstDigit);
-
-            // When the first digit is 2, the second digit may be 0-3.
-            secondDigit = new Node(k0, k1, k2, k3);
-            firstDigit.addChild(secondDigit);
-            // We must now be followed by the first minute digit. E.g. 20:50, 23:09.
-            secondDigit.addChild(minuteFirstDigit);
-
-            // When the first digit is 2, the second digit may be 4-5.
-            secondDigit = new Node(k4, k5);
-            firstDigit.addChild(secondDigit);
-            // We must now be followd by the last minute digit. E.g. 2:40, 2:53.
-            secondDigit.addChild(minuteSecondDigit);
-
-            // The first digit may be 3-9.
-            firstDigit = new Node(k3, k4, k5, k6, k7, k8, k9);
-            mLegalTimesTree.addChild(firstDigit);
-            // We must now be followed by the first minute digit. E.g. 3:57, 8:12.
-            firstDigit.addChild(minuteFirstDigit);
-        } else {
-            // We'll need to use the AM/PM node a lot.
-            // Set up AM and PM to respond to "a" and "p".
-            Node ampm = new Node(getAmOrPmKeyCode(AM), getAmOrPmKeyCode(PM));
-
-            // The first hour digit may be 1.
-            Node firstDigit = new Node(k1);
-            mLegalTimesTree.addChild(firstDigit);
-            // We'll allow quick input of on-the-hour times. E.g. 1pm.
-            firstDigit.addChild(ampm);
-
-            // When the first digit is 1, the second digit may be 0-2.
-            Node secondDigit = new Node(k0, k1, k2);
-            firstDigit.addChild(secondDigit);
-            // Also for quick input of on-the-hour times. E.g. 10pm, 12am.
-            secondDigit.addChild(ampm);
-
-            // When the first digit is 1, and the second digit is 0-2, the third digit may be 0-5.
-            Node thirdDigit = new Node(k0, k1, k2, k3, k4, k5);
-            secondDigit.addChild(thirdDigit);
-            // The time may be finished now. E.g. 1:02pm, 1:25am.
-            thirdDigit.addChild(ampm);
-
-            // When the first digit is 1, the second digit is 0-2, and the third digit is 0-5,
-            // the fourth digit may be 0-9.
-            Node fourthDigit = new Node(k0, k1, k2, k3, k4, k5, k6, k7, k8, k9);
-            thirdDigit.addChild(fourthDigit);
-            // The time must be finished now. E.g. 10:49am, 12:40pm.
-            fourthDigit.addChild(ampm);
-
-            // When the first digit is 1, and the second digit is 0-2, the third digit may be 6-9.
-            thirdDigit = new Node(k6, k7, k8, k9);
-            secondDigit.addChild(thirdDigit);
-            // The time must be finished now. E.g. 1:08am, 1:26pm.
-            thirdDigit.addChild(ampm);
-
-            // When the first digit is 1, the second digit may be 3-5.
-            secondDigit = new Node(k3, k4, k5);
-            firstDigit.addChild(secondDigit);
-
-            // When the first digit is 1, and the second digit is 3-5, the third digit may be 0-9.
-            thirdDigit = new Node(k0, k1, k2, k3, k4, k5, k6, k7, k8, k9);
-            secondDigit.addChild(thirdDigit);
-            // The time must be finished now. E.g. 1:39am, 1:50pm.
-            thirdDigit.addChild(ampm);
-
-            // The hour digit may be 2-9.
-            firstDigit = new Node(k2, k3, k4, k5, k6, k7, k8, k9);
-            mLegalTimesTree.addChild(firstDigit);
-            // We'll allow quick input of on-the-hour-times. E.g. 2am, 5pm.
-            firstDigit.addChild(ampm);
-
-            // When the first digit is 2-9, the second digit may be 0-5.
-            secondDigit = new Node(k0, k1, k2, k3, k4, k5);
-            firstDigit.addChild(secondDigit);
-
-            // When the first digit is 2-9, and the second digit is 0-5, the third digit may be 0-9.
-            thirdDigit = new Node(k0, k1, k2, k3, k4, k5, k6, k7, k8, k9);
-            secondDigit.addChild(thirdDigit);
-            // The time must be finished now. E.g. 2:57am, 9:30pm.
-            thirdDigit.addChild(ampm);
+    private static int[] findAmPmKeyCodes(String amText, String pmText) {
+        int[] amPmKeyCodes = new int[] {-1, -1};
+        // Find the first character in the AM/PM text that is unique.
+        KeyCharacterMap kcm = KeyCharacterMap.load(KeyCharacterMap.VIRTUAL_KEYBOARD);
+        char amChar;
+        char pmChar;
+        for (int i = 0; i < Math.max(amText.length(), pmText.length()); i++) {
+            amChar = amText.toLowerCase(Locale.getDefault()).charAt(i);
+            pmChar = pmText.toLowerCase(Locale.getDefault()).charAt(i);
+            if (amChar != pmChar) {
+                KeyEvent[] events = kcm.getEvents(new char[]{amChar, pmChar});
+                // There should be 4 events: a down and up for both AM and PM.
+                if (events != null && events.length == 4) {
+                    amPmKeyCodes[AM] = events[0].getKeyCode();
+                    amPmKeyCodes[PM] = events[2].getKeyCode();
+                } else {
+                    Log.e(TAG, "Unable to find keycodes for AM and PM.");
+                }
+                break;
+            }
         }
+        return amPmKeyCodes;
     }
 
     /**
-     * Simple node class to be used for traversal to check for legal times.
-     * mLegalKeys represents the keys that can be typed to get to the node.
-     * mChildren are the children that can be reached from this node.
+     * Create a tree for deciding what keys can legally be typed.
      */
-    private static class Node {
-        private int[] mLegalKeys;
-        private ArrayList<Node> mChildren;
-
-        public Node(int... legalKeys) {
-            mLegalKeys = legalKeys;
-            mChildren = new ArrayList<>();
-        }
-
-        public void addChild(Node child) {
-            mChildren.add(child);
-        }
-
-        public boolean containsKey(int key) {
-            for (int i = 0; i < mLegalKeys.length; i++) {
-                if (mLegalKeys[i] == key) {
-                    return true;
-                }
-            }
-            return false;
-        }
-
-        public Node canReach(int key) {
-            if (mChildren == null) {
-                return null;
-            }
-            for (Node child : mChildren) {
-                if (child.containsKey(key)) {
-                    return child;
-                }
-            }
-            return null;
+    private void generateLegalTimesTree() {
+        if (mPrewarmedLegalTimesTree != null && mPrewarmedIs24HourMode == mIs24HourMode
+                && mPrewarmedAmPmTexts[AM].equals(mAmText)
+                && mPrewarmedAmPmTexts[PM].equals(mPmText)) {
+            mLegalTimesTree = mPrewarmedLegalTimesTree;
+            mAmKeyCode = mPrewarmedAmPmKeyCodes[AM];
+            mPmKeyCode = mPrewarmedAmPmKeyCodes[PM];
+        } else if (mIs24HourMode) {
+            mLegalTimesTree = LegalTimesTree.build(true, -1, -1);
+        } else {
+            mLegalTimesTree = LegalTimesTree.build(false, getAmOrPmKeyCode(AM), getAmOrPmKeyCode(PM));
         }
+        mPrewarmedLegalTimesTree = null;
     }
 
     private class KeyboardListener implements OnKeyListener {
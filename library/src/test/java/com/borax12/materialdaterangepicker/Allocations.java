@@ -0,0 +1,45 @@
+package com.borax12.materialdaterangepicker;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures what the test thread allocates while drawing frames, from the per thread allocation
+ * counter of HotSpot.
+ */
+public final class Allocations {
+
+    /**
+     * Draws one frame, e.g. by changing the state of a view and calling its onDraw().
+     */
+    public interface Frame {
+        void draw(int frame);
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Allocations() {
+    }
+
+    /**
+     * Draws the frames once to warm them up, then again while counting the allocated bytes.
+     *
+     * @return The bytes allocated by the frames after warming up, less the bytes allocated by
+     * reading the counter itself
+     */
+    public static long measure(Frame frame, int frameCount) {
+        for (int i = 0; i < frameCount; i++) {
+            frame.draw(i);
+        }
+        final long threadId = Thread.currentThread().getId();
+        // Reading the counter allocates on some JDKs, see how much to leave it out
+        final long calibrationStart = THREADS.getThreadAllocatedBytes(threadId);
+        final long overhead = THREADS.getThreadAllocatedBytes(threadId) - calibrationStart;
+
+        final long start = THREADS.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < frameCount; i++) {
+            frame.draw(i);
+        }
+        return THREADS.getThreadAllocatedBytes(threadId) - start - overhead;
+    }
+}
@@ -0,0 +1,45 @@
+package com.borax12.materialdaterangepicker;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+/**
+ * A canvas that only counts the shapes and texts drawn on it, so that tests can run the draws of
+ * the views without the allocations of the canvas itself. Covers the draw calls the views of the
+ * library make.
+ */
+public class RecordingCanvas extends Canvas {
+
+    private int mDrawCount;
+
+    /**
+     * @return The number of shapes and texts drawn since the canvas was created or reset
+     */
+    public int getDrawCount() {
+        return mDrawCount;
+    }
+
+    public void reset() {
+        mDrawCount = 0;
+    }
+
+    @Override
+    public void drawText(String text, float x, float y, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawLine(float startX, float startY, float stopX, float stopY, Paint paint) {
+        mDrawCount++;
+    }
+
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+        mDrawCount++;
+    }
+}
@@ -0,0 +1,85 @@
+package com.borax12.materialdaterangepicker.date;
+
+import com.borax12.materialdaterangepicker.Allocations;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Calendar;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+public class DayAvailabilityCacheTest {
+
+    // Runs the loads on the test thread, their results are posted to the main looper
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    // Only the 1st of each month is available
+    private static final DayAvailabilityProvider FIRSTS = new DayAvailabilityProvider() {
+        @Override
+        public EpochDaySet getAvailableDays(int firstEpochDay, int lastEpochDay) {
+            final EpochDaySet days = new EpochDaySet();
+            for (int day = firstEpochDay; day <= lastEpochDay; day++) {
+                if (EpochDay.day(day) == 1) days.add(day);
+            }
+            return days;
+        }
+    };
+
+    private static final DayAvailabilityCache.OnMonthLoadedListener NO_LISTENER =
+            new DayAvailabilityCache.OnMonthLoadedListener() {
+        @Override
+        public void onMonthLoaded(int year, int month) {
+        }
+    };
+
+    @Test
+    public void getAvailableDays_pendingUntilLoaded() {
+        final DayAvailabilityCache cache =
+                new DayAvailabilityCache(FIRSTS, DIRECT, NO_LISTENER);
+        assertEquals(DayAvailabilityCache.PENDING, cache.getAvailableDays(2020, Calendar.MARCH));
+        cache.request(2020, Calendar.MARCH, 1);
+        assertEquals(1, cache.getAvailableDays(2020, Calendar.MARCH));
+    }
+
+    @Test
+    public void request_evictsLeastRecentlyUsedMonth() {
+        final DayAvailabilityCache cache =
+                new DayAvailabilityCache(FIRSTS, DIRECT, NO_LISTENER);
+        // Three years of months fill the cache
+        cache.request(2020, Calendar.JANUARY, 36);
+        // Makes January the most recently used month, leaving February the least
+        cache.getAvailableDays(2020, Calendar.JANUARY);
+        cache.request(2023, Calendar.JANUARY, 1);
+
+        assertEquals(1, cache.getAvailableDays(2020, Calendar.JANUARY));
+        assertEquals(DayAvailabilityCache.PENDING,
+                cache.getAvailableDays(2020, Calendar.FEBRUARY));
+        assertEquals(1, cache.getAvailableDays(2020, Calendar.MARCH));
+        assertEquals(1, cache.getAvailableDays(2023, Calendar.JANUARY));
+    }
+
+    @Test
+    public void getAvailableDays_allocatesNothing() {
+        final DayAvailabilityCache cache =
+                new DayAvailabilityCache(FIRSTS, DIRECT, NO_LISTENER);
+        cache.request(2020, Calendar.JANUARY, 36);
+        final long allocated = Allocations.measure(new Allocations.Frame() {
+            @Override
+            public void draw(int frame) {
+                cache.getAvailableDays(2020 + frame % 3, frame % 12);
+                // Not cached
+                cache.getAvailableDays(2030, frame % 12);
+            }
+        }, 2000);
+        assertEquals(0, allocated);
+    }
+}
@@ -0,0 +1,181 @@
+package com.borax12.materialdaterangepicker.date;
+
+import android.view.View.MeasureSpec;
+
+import com.borax12.materialdaterangepicker.Allocations;
+import com.borax12.materialdaterangepicker.PickerMetricsRecorder;
+import com.borax12.materialdaterangepicker.RecordingCanvas;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.Calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class SimpleMonthViewDrawTest {
+
+    private static final int FRAMES = 2000;
+
+    @Test
+    public void onDraw_allocatesNothingInSteadyState() {
+        final FakeController controller = new FakeController();
+        controller.mRangeStart = EpochDay.of(2015, Calendar.AUGUST, 10);
+        controller.mRangeEnd = EpochDay.of(2015, Calendar.AUGUST, 14);
+        controller.mHighlightedDays = EpochDaySet.of(new int[] {
+                EpochDay.of(2015, Calendar.AUGUST, 20), EpochDay.of(2015, Calendar.AUGUST, 21)});
+        controller.mSelectableDays = EpochDaySet.of(new int[] {
+                EpochDay.of(2015, Calendar.AUGUST, 3), EpochDay.of(2015, Calendar.AUGUST, 12)});
+
+        final SimpleMonthView view =
+                new SimpleMonthView(RuntimeEnvironment.application, null, controller);
+        view.bind(2015, Calendar.AUGUST, 12, Calendar.SUNDAY);
+        view.measure(MeasureSpec.makeMeasureSpec(1080, MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+
+        final RecordingCanvas canvas = new RecordingCanvas();
+        final long allocated = Allocations.measure(new Allocations.Frame() {
+            @Override
+            public void draw(int frame) {
+                view.updateSelectedDay(frame % 31 + 1);
+                view.onDraw(canvas);
+            }
+        }, FRAMES);
+
+        assertTrue(canvas.getDrawCount() > 0);
+        assertEquals(0, allocated);
+    }
+
+    private static class FakeController implements DatePickerController {
+
+        int mRangeStart = EpochDay.MAX;
+        int mRangeEnd = EpochDay.MIN;
+        EpochDaySet mHighlightedDays;
+        EpochDaySet mSelectableDays;
+
+        @Override
+        public void onYearSelected(int year) {
+        }
+
+        @Override
+        public void onDayOfMonthSelected(int epochDay) {
+        }
+
+        @Override
+        public void registerOnDateChangedListener(
+                DatePickerDialog.OnDateChangedListener listener) {
+        }
+
+        @Override
+        public void unregisterOnDateChangedListener(
+                DatePickerDialog.OnDateChangedListener listener) {
+        }
+
+        @Override
+        public int getSelectedEpochDay() {
+            return EpochDay.MIN;
+        }
+
+        @Override
+        public boolean isThemeDark() {
+            return false;
+        }
+
+        @Override
+        public EpochDaySet getHighlightedDaySet() {
+            return mHighlightedDays;
+        }
+
+        @Override
+        public int getHighlightedRangeStart() {
+            return EpochDay.MAX;
+        }
+
+        @Override
+        public int getHighlightedRangeEnd() {
+            return EpochDay.MIN;
+        }
+
+        @Override
+        public int getSelectedRangeStart() {
+            return mRangeStart;
+        }
+
+        @Override
+        public int getSelectedRangeEnd() {
+            return mRangeEnd;
+        }
+
+        @Override
+        public EpochDaySet getSelectableDaySet() {
+            return mSelectableDays;
+        }
+
+        @Override
+        public int getFirstDayOfWeek() {
+            return Calendar.SUNDAY;
+        }
+
+        @Override
+        public int getMinYear() {
+            return MonthLayout.DEFAULT_FIRST_YEAR;
+        }
+
+        @Override
+        public int getMaxYear() {
+            return MonthLayout.DEFAULT_LAST_YEAR;
+        }
+
+        @Override
+        public int getMinEpochDay() {
+            return EpochDay.MIN;
+        }
+
+        @Override
+        public int getMaxEpochDay() {
+            return EpochDay.MAX;
+        }
+
+        @Override
+        public int getConfigGeneration() {
+            return 0;
+        }
+
+        @Override
+        public int getAvailableDays(int year, int month) {
+            return DayAvailabilityCache.ALL_DAYS;
+        }
+
+        @Override
+        public void requestAvailableDays(int year, int month, int monthCount) {
+        }
+
+        @Override
+        public void cancelAvailableDaysOutside(int year, int month, int monthCount) {
+        }
+
+        @Override
+        public DayDecorations getDayDecorations(int year, int month) {
+            return null;
+        }
+
+        @Override
+        public DayHeatmap getHeatmap() {
+            return null;
+        }
+
+        @Override
+        public PickerMetricsRecorder getMetricsRecorder() {
+            return null;
+        }
+
+        @Override
+        public void tryVibrate() {
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.borax12.materialdaterangepicker.time;
+
+import android.content.Context;
+
+import com.borax12.materialdaterangepicker.Allocations;
+import com.borax12.materialdaterangepicker.RecordingCanvas;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class RadialViewsDrawTest {
+
+    private static final int FRAMES = 2000;
+    private static final int SIZE = 1000;
+
+    private static final String[] HOURS =
+            {"12", "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11"};
+    private static final String[] HOURS_24 =
+            {"00", "13", "14", "15", "16", "17", "18", "19", "20", "21", "22", "23"};
+
+    @Test
+    public void radialTextsView_allocatesNothingInSteadyState() {
+        final Context context = RuntimeEnvironment.application;
+        final RadialTextsView view = new RadialTextsView(context);
+        view.initialize(context.getResources(), HOURS, HOURS_24, true, true);
+        view.layout(0, 0, SIZE, SIZE);
+
+        final RecordingCanvas canvas = new RecordingCanvas();
+        final long allocated = Allocations.measure(new Allocations.Frame() {
+            @Override
+            public void draw(int frame) {
+                view.setSelection(frame % 24);
+                // Moves the numbers as the appear and disappear animations do
+                view.setAnimationRadiusMultiplier(0.7f + frame % 10 * 0.05f);
+                view.onDraw(canvas);
+            }
+        }, FRAMES);
+
+        assertTrue(canvas.getDrawCount() > 0);
+        assertEquals(0, allocated);
+    }
+
+    @Test
+    public void radialSelectorView_allocatesNothingInSteadyState() {
+        final Context context = RuntimeEnvironment.application;
+        final RadialSelectorView view = new RadialSelectorView(context);
+        view.initialize(context, false, false, true, 0, false);
+        view.layout(0, 0, SIZE, SIZE);
+
+        final RecordingCanvas canvas = new RecordingCanvas();
+        final long allocated = Allocations.measure(new Allocations.Frame() {
+            @Override
+            public void draw(int frame) {
+                // Selections between the hour ticks draw the dot, and so do forced ones
+                view.setSelection(frame % 60 * 6, false, frame % 6 == 0);
+                view.setAnimationRadiusMultiplier(0.7f + frame % 10 * 0.05f);
+                view.onDraw(canvas);
+            }
+        }, FRAMES);
+
+        assertTrue(canvas.getDrawCount() > 0);
+        assertEquals(0, allocated);
+    }
+}